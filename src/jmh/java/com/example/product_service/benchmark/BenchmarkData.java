@@ -0,0 +1,96 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Datos sintéticos y repositorios en memoria compartidos por los benchmarks JMH
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Category category(long id) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName("Category " + id);
+        category.setDescription("Benchmark category " + id);
+        return category;
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        Category category = category(1L);
+        for (long id = 1; id <= count; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setDescription("A reasonably sized description for product number " + id);
+            product.setPrice(new BigDecimal("1999.99").add(BigDecimal.valueOf(id, 2)));
+            product.setStock((int) (id % 50));
+            product.setCategory(category);
+            product.setImageUrls(new ArrayList<>(List.of(
+                    "https://cdn.example.com/images/products/" + id + "/front.jpg",
+                    "https://cdn.example.com/images/products/" + id + "/back.jpg")));
+            products.add(product);
+        }
+        return products;
+    }
+
+    static List<ProductDto> productDtos(int count) {
+        List<ProductDto> dtos = new ArrayList<>(count);
+        for (Product product : products(count)) {
+            dtos.add(ProductDto.fromEntity(product));
+        }
+        return dtos;
+    }
+
+    // Implementa solo las consultas que usan las rutas de lectura de ProductService
+    static ProductRepository productRepository(List<Product> products) {
+        TreeMap<Long, Product> byId = new TreeMap<>();
+        products.forEach(product -> byId.put(product.getId(), product));
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[] {ProductRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findById":
+                        case "findWithImagesById":
+                            return Optional.ofNullable(byId.get((Long) args[0]));
+                        case "findAllByOrderByIdAsc":
+                            return page(byId.values(), (Pageable) args[0]);
+                        case "findByIdGreaterThanOrderByIdAsc":
+                            return page(byId.tailMap((Long) args[0], false).values(), (Pageable) args[1]);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    static CategoryRepository categoryRepository() {
+        return (CategoryRepository) Proxy.newProxyInstance(CategoryRepository.class.getClassLoader(),
+                new Class<?>[] {CategoryRepository.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<Product> page(Collection<Product> products, Pageable pageable) {
+        List<Product> page = new ArrayList<>(pageable.getPageSize());
+        for (Product product : products) {
+            if (page.size() == pageable.getPageSize()) {
+                break;
+            }
+            page.add(product);
+        }
+        return page;
+    }
+}
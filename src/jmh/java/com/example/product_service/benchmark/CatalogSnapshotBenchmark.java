@@ -0,0 +1,91 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.catalog.CatalogSnapshot;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.service.ProductService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Lectura + JSON desde la copia columnar frente al camino del servicio (entidades -> DTO -> Jackson).
+// Ejecutar con -prof gc para comparar gc.alloc.rate.norm (bytes por operación)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CatalogSnapshotBenchmark {
+
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    private CatalogSnapshot snapshot;
+    private ProductService productService;
+    private JsonFactory jsonFactory;
+    private ObjectWriter writer;
+    // Descarta los bytes; a diferencia de OutputStream.nullOutputStream() sigue aceptando escrituras tras close()
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        snapshot = new CatalogSnapshot();
+        BenchmarkData.productDtos(catalogSize).forEach(snapshot::put);
+        productService = new ProductService(BenchmarkData.productRepository(BenchmarkData.products(catalogSize)),
+                BenchmarkData.categoryRepository(), event -> {
+                }, Optional.empty(), 5000);
+        ObjectMapper objectMapper = new ObjectMapper();
+        jsonFactory = objectMapper.getFactory();
+        writer = objectMapper.writer();
+    }
+
+    @Benchmark
+    public boolean snapshotProductById() throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            return snapshot.writeProduct(catalogSize / 2L, generator);
+        }
+    }
+
+    @Benchmark
+    public void snapshotFirstPage() throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            snapshot.writePage(0, ProductService.DEFAULT_PAGE_SIZE, generator);
+        }
+    }
+
+    @Benchmark
+    public void serviceFirstPage() throws IOException {
+        writer.writeValue(out, productService.getProductPage(null, ProductService.DEFAULT_PAGE_SIZE, "id"));
+    }
+
+    @Benchmark
+    public void serviceProductById() throws IOException {
+        ProductDto product = productService.getProductById(catalogSize / 2L);
+        writer.writeValue(out, product);
+    }
+}
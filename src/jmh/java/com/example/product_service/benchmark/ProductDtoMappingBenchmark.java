@@ -0,0 +1,53 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.CategoryDto;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductDtoMappingBenchmark {
+
+    private Product product;
+    private ProductDto productDto;
+    private Category category;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.products(1).get(0);
+        productDto = ProductDto.fromEntity(product);
+        category = BenchmarkData.category(1L);
+    }
+
+    @Benchmark
+    public ProductDto productFromEntity() {
+        return ProductDto.fromEntity(product);
+    }
+
+    @Benchmark
+    public Product productToEntity() {
+        return productDto.toEntity();
+    }
+
+    @Benchmark
+    public CategoryDto categoryFromEntity() {
+        return CategoryDto.fromEntity(category);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.ProductDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// CPU por respuesta de 1.000 productos para cada formato negociable, con y sin gzip.
+// El tamaño del cuerpo se imprime en el setup de cada combinación.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductEncodingBenchmark {
+
+    private static final int PRODUCT_COUNT = 1000;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private List<ProductDto> products;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() throws IOException {
+        products = BenchmarkData.productDtos(PRODUCT_COUNT);
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> new JsonMapper();
+        };
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ProductDto.class));
+        System.out.printf("%n%s gzip=%s: %d bytes per %d products%n", format, gzip, encode().length,
+                PRODUCT_COUNT);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 * 1024);
+        try (OutputStream out = gzip ? new GZIPOutputStream(buffer) : buffer) {
+            writer.writeValue(out, products);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<ProductDto> products;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.productDtos(size);
+        writer = new ObjectMapper().writerFor(new ObjectMapper().getTypeFactory()
+                .constructCollectionType(List.class, ProductDto.class));
+    }
+
+    @Benchmark
+    public byte[] serializeProductList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(products);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductPageDto;
+import com.example.product_service.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Rutas de lectura del servicio sin base de datos: mide mapeo, paginación y asignaciones
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductServiceReadBenchmark {
+
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    private ProductService productService;
+    private String secondPageCursor;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService(BenchmarkData.productRepository(BenchmarkData.products(catalogSize)),
+                BenchmarkData.categoryRepository(), event -> {
+                }, Optional.empty(), 5000);
+        secondPageCursor = productService.getProductPage(null, ProductService.DEFAULT_PAGE_SIZE, "id")
+                .getNextCursor();
+    }
+
+    @Benchmark
+    public ProductDto getProductById() {
+        return productService.getProductById(catalogSize / 2L);
+    }
+
+    @Benchmark
+    public ProductPageDto getFirstPage() {
+        return productService.getProductPage(null, ProductService.DEFAULT_PAGE_SIZE, "id");
+    }
+
+    @Benchmark
+    public ProductPageDto getPageWithCursor() {
+        return productService.getProductPage(secondPageCursor, ProductService.DEFAULT_PAGE_SIZE, "id");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.ratelimit.RateLimitInterceptor;
+import com.example.product_service.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Coste del camino permitido (objetivo: < 1 µs). Límites altos para que ninguna petición se rechace;
+// con 4 hilos, "sameClient" mide la contención del CAS sobre una sola cubeta
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+    private RateLimiter limiter;
+    private RateLimitInterceptor interceptor;
+
+    @State(Scope.Thread)
+    public static class Client {
+        String key;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            key = "ip:10.0.0." + CLIENTS.incrementAndGet();
+            request = new MockHttpServletRequest("GET", "/api/products");
+            request.setRemoteAddr(key.substring(3));
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(1e9, Integer.MAX_VALUE / 2);
+        interceptor = new RateLimitInterceptor(limiter, limiter, "X-API-Key", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long sameClient() {
+        return limiter.tryAcquire("ip:10.0.0.1");
+    }
+
+    @Benchmark
+    public long clientPerThread(Client client) {
+        return limiter.tryAcquire(client.key);
+    }
+
+    @Benchmark
+    public boolean interceptorPerThread(Client client) {
+        return interceptor.preHandle(client.request, client.response, null);
+    }
+}
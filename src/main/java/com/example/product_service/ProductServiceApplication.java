@@ -2,12 +2,20 @@ package com.example.product_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class ProductServiceApplication {
 
+    // Creación de beans registrada para /actuator/startup y el resumen de StartupTimingReporter
+    private static final int STARTUP_STEPS_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(ProductServiceApplication.class, args);
+        SpringApplication application = new SpringApplication(ProductServiceApplication.class);
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY);
+        startup.addFilter(step -> step.getName().startsWith("spring.beans."));
+        application.setApplicationStartup(startup);
+        application.run(args);
         System.out.println("Product Service is running...");
     }
 }
@@ -0,0 +1,411 @@
+package com.example.product_service.catalog;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.exception.InvalidPageRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+// Copia del catálogo en columnas de primitivos ordenadas por id: precio en centavos, stock, categoría y
+// textos deduplicados en un diccionario, ya codificados como JSON. Leer un producto copia la fila bajo el
+// lock y lo escribe en el JsonGenerator sin entidades, BigDecimal ni DTOs
+public class CatalogSnapshot {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    static final int PRICE_SCALE = 2;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int PRICE_CHARS = 22;
+    private static final SerializedString[] NO_IMAGES = new SerializedString[0];
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString STOCK = new SerializedString("stock");
+    private static final SerializedString CATEGORY_ID = new SerializedString("categoryId");
+    private static final SerializedString IMAGE_URLS = new SerializedString("imageUrls");
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString NEXT_AFTER = new SerializedString("nextAfter");
+
+    // StampedLock no guarda estado por hilo (ReentrantReadWriteLock crea un contador por cada hilo virtual)
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, SerializedString> dictionary = new HashMap<>();
+    // Referencias a textos desde las columnas; el diccionario se compacta cuando dobla esta cifra
+    private int stringSlots;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] stocks = new int[INITIAL_CAPACITY];
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private SerializedString[] names = new SerializedString[INITIAL_CAPACITY];
+    private SerializedString[] descriptions = new SerializedString[INITIAL_CAPACITY];
+    private SerializedString[][] imageUrls = new SerializedString[INITIAL_CAPACITY][];
+    private int size;
+
+    public void put(ProductDto product) {
+        long id = product.getId();
+        long price = toMinorUnits(product.getPrice());
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(id);
+            if (index < 0) {
+                // Los ids salen de una secuencia: casi siempre se agrega al final, sin desplazar filas
+                index = -index - 1;
+                insertAt(index);
+                ids[index] = id;
+            } else {
+                stringSlots -= slotsAt(index);
+            }
+            prices[index] = price;
+            stocks[index] = product.getStock();
+            categoryIds[index] = product.getCategoryId();
+            names[index] = intern(product.getName());
+            descriptions[index] = product.getDescription() == null ? null : intern(product.getDescription());
+            imageUrls[index] = internAll(product.getImageUrls());
+            stringSlots += slotsAt(index);
+            compactDictionaryIfSparse();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Un campo null significa "sin cambios", como en ProductInventoryChangedEvent
+    public void updateInventory(long id, BigDecimal price, Integer stock) {
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(id);
+            if (index < 0) {
+                return;
+            }
+            if (price != null) {
+                prices[index] = toMinorUnits(price);
+            }
+            if (stock != null) {
+                stocks[index] = stock;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int index = indexOf(id);
+            if (index >= 0) {
+                stringSlots -= slotsAt(index);
+                removeRange(index, 1);
+                compactDictionaryIfSparse();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Al eliminar una categoría sus productos se eliminan en cascada: una sola pasada que compacta las filas
+    public void removeCategory(long categoryId) {
+        long stamp = lock.writeLock();
+        try {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (categoryIds[i] == categoryId) {
+                    stringSlots -= slotsAt(i);
+                } else {
+                    if (kept != i) {
+                        moveRow(i, kept);
+                    }
+                    kept++;
+                }
+            }
+            clearRows(kept, size);
+            size = kept;
+            compactDictionaryIfSparse();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int dictionarySize() {
+        long stamp = lock.readLock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Escribe el producto con el mismo JSON que ProductDto; false (sin escribir nada) si no existe
+    public boolean writeProduct(long id, JsonGenerator generator) throws IOException {
+        long price;
+        int stock;
+        long categoryId;
+        SerializedString name;
+        SerializedString description;
+        SerializedString[] images;
+        long stamp = lock.readLock();
+        try {
+            int index = indexOf(id);
+            if (index < 0) {
+                return false;
+            }
+            price = prices[index];
+            stock = stocks[index];
+            categoryId = categoryIds[index];
+            name = names[index];
+            description = descriptions[index];
+            images = imageUrls[index];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        writeProduct(generator, id, name, description, price, stock, categoryId, images, new char[PRICE_CHARS]);
+        return true;
+    }
+
+    // Página por keyset sobre el id: {"items":[...],"size":n,"nextAfter":id|null}. Las filas se copian bajo
+    // el lock y se escriben después, para no retener el lock mientras se envía la respuesta
+    public void writePage(long after, int pageSize, JsonGenerator generator) throws IOException {
+        if (pageSize < 1) {
+            throw new InvalidPageRequestException("Page size must be at least 1");
+        }
+        Rows rows = new Rows(Math.min(pageSize, MAX_PAGE_SIZE));
+        boolean hasMore;
+        long stamp = lock.readLock();
+        try {
+            int from = indexOf(after);
+            from = from < 0 ? -from - 1 : from + 1;
+            int to = Math.min(from + rows.ids.length, size);
+            for (int i = from; i < to; i++) {
+                rows.copy(this, i);
+            }
+            hasMore = to < size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        generator.writeStartObject();
+        generator.writeFieldName(ITEMS);
+        generator.writeStartArray();
+        for (int i = 0; i < rows.count; i++) {
+            writeProduct(generator, rows.ids[i], rows.names[i], rows.descriptions[i], rows.prices[i],
+                    rows.stocks[i], rows.categoryIds[i], rows.imageUrls[i], rows.priceChars);
+        }
+        generator.writeEndArray();
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(rows.count);
+        generator.writeFieldName(NEXT_AFTER);
+        if (hasMore) {
+            generator.writeNumber(rows.ids[rows.count - 1]);
+        } else {
+            generator.writeNull();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeProduct(JsonGenerator generator, long id, SerializedString name,
+            SerializedString description, long price, int stock, long categoryId, SerializedString[] images,
+            char[] priceChars) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(id);
+        generator.writeFieldName(NAME);
+        generator.writeString(name);
+        generator.writeFieldName(DESCRIPTION);
+        if (description == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(description);
+        }
+        generator.writeFieldName(PRICE);
+        int start = formatMinorUnits(price, priceChars);
+        generator.writeRawValue(priceChars, start, priceChars.length - start);
+        generator.writeFieldName(STOCK);
+        generator.writeNumber(stock);
+        generator.writeFieldName(CATEGORY_ID);
+        generator.writeNumber(categoryId);
+        generator.writeFieldName(IMAGE_URLS);
+        generator.writeStartArray();
+        for (SerializedString image : images) {
+            generator.writeString(image);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    // Centavos como decimal JSON ("1999" -> 19.99) escrito al final del buffer; devuelve la posición inicial
+    static int formatMinorUnits(long minorUnits, char[] buffer) {
+        long value = Math.abs(minorUnits);
+        int position = buffer.length;
+        for (int i = 0; i < PRICE_SCALE; i++) {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        if (minorUnits < 0) {
+            buffer[--position] = '-';
+        }
+        return position;
+    }
+
+    // La columna price tiene escala 2; se redondea igual que al guardar
+    static long toMinorUnits(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private int indexOf(long id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    private int slotsAt(int index) {
+        return 1 + (descriptions[index] == null ? 0 : 1) + imageUrls[index].length;
+    }
+
+    private SerializedString intern(String text) {
+        return dictionary.computeIfAbsent(text, key -> {
+            SerializedString serialized = new SerializedString(key);
+            // Codifica ahora, bajo el lock de escritura, para que las lecturas no lo hagan en cada petición
+            serialized.asQuotedUTF8();
+            return serialized;
+        });
+    }
+
+    private SerializedString[] internAll(List<String> texts) {
+        if (texts == null || texts.isEmpty()) {
+            return NO_IMAGES;
+        }
+        SerializedString[] interned = new SerializedString[texts.size()];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = intern(texts.get(i));
+        }
+        return interned;
+    }
+
+    // Los textos reemplazados quedan en el diccionario; se reconstruye con los vivos cuando sobran demasiados
+    private void compactDictionaryIfSparse() {
+        if (dictionary.size() <= 2 * stringSlots + INITIAL_CAPACITY) {
+            return;
+        }
+        dictionary.clear();
+        for (int i = 0; i < size; i++) {
+            dictionary.putIfAbsent(names[i].getValue(), names[i]);
+            if (descriptions[i] != null) {
+                dictionary.putIfAbsent(descriptions[i].getValue(), descriptions[i]);
+            }
+            for (SerializedString image : imageUrls[i]) {
+                dictionary.putIfAbsent(image.getValue(), image);
+            }
+        }
+    }
+
+    private void insertAt(int index) {
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            imageUrls = Arrays.copyOf(imageUrls, capacity);
+        }
+        int moved = size - index;
+        if (moved > 0) {
+            System.arraycopy(ids, index, ids, index + 1, moved);
+            System.arraycopy(prices, index, prices, index + 1, moved);
+            System.arraycopy(stocks, index, stocks, index + 1, moved);
+            System.arraycopy(categoryIds, index, categoryIds, index + 1, moved);
+            System.arraycopy(names, index, names, index + 1, moved);
+            System.arraycopy(descriptions, index, descriptions, index + 1, moved);
+            System.arraycopy(imageUrls, index, imageUrls, index + 1, moved);
+        }
+        size++;
+    }
+
+    private void removeRange(int index, int count) {
+        int moved = size - index - count;
+        if (moved > 0) {
+            System.arraycopy(ids, index + count, ids, index, moved);
+            System.arraycopy(prices, index + count, prices, index, moved);
+            System.arraycopy(stocks, index + count, stocks, index, moved);
+            System.arraycopy(categoryIds, index + count, categoryIds, index, moved);
+            System.arraycopy(names, index + count, names, index, moved);
+            System.arraycopy(descriptions, index + count, descriptions, index, moved);
+            System.arraycopy(imageUrls, index + count, imageUrls, index, moved);
+        }
+        clearRows(size - count, size);
+        size -= count;
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        prices[to] = prices[from];
+        stocks[to] = stocks[from];
+        categoryIds[to] = categoryIds[from];
+        names[to] = names[from];
+        descriptions[to] = descriptions[from];
+        imageUrls[to] = imageUrls[from];
+    }
+
+    // Suelta las referencias a textos de las filas libres para no retenerlos
+    private void clearRows(int from, int to) {
+        Arrays.fill(names, from, to, null);
+        Arrays.fill(descriptions, from, to, null);
+        Arrays.fill(imageUrls, from, to, null);
+    }
+
+    // Copia de las filas de una página, para escribirlas fuera del lock
+    private static final class Rows {
+        final long[] ids;
+        final long[] prices;
+        final int[] stocks;
+        final long[] categoryIds;
+        final SerializedString[] names;
+        final SerializedString[] descriptions;
+        final SerializedString[][] imageUrls;
+        final char[] priceChars = new char[PRICE_CHARS];
+        int count;
+
+        Rows(int capacity) {
+            ids = new long[capacity];
+            prices = new long[capacity];
+            stocks = new int[capacity];
+            categoryIds = new long[capacity];
+            names = new SerializedString[capacity];
+            descriptions = new SerializedString[capacity];
+            imageUrls = new SerializedString[capacity][];
+        }
+
+        void copy(CatalogSnapshot snapshot, int index) {
+            ids[count] = snapshot.ids[index];
+            prices[count] = snapshot.prices[index];
+            stocks[count] = snapshot.stocks[index];
+            categoryIds[count] = snapshot.categoryIds[index];
+            names[count] = snapshot.names[index];
+            descriptions[count] = snapshot.descriptions[index];
+            imageUrls[count] = snapshot.imageUrls[index];
+            count++;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.product_service.catalog;
+
+import com.example.product_service.event.CategoryChangedEvent;
+import com.example.product_service.event.ChangeType;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.example.product_service.event.RebuildBuffer;
+import com.example.product_service.service.ProductExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Igual que el índice de búsqueda: carga completa al arrancar y cambios incrementales tras cada commit
+public class CatalogSnapshotUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotUpdater.class);
+
+    private final CatalogSnapshot snapshot;
+    private final ProductExportService productExportService;
+    private final RebuildBuffer rebuildBuffer = new RebuildBuffer();
+
+    public CatalogSnapshotUpdater(CatalogSnapshot snapshot, ProductExportService productExportService) {
+        this.snapshot = snapshot;
+        this.productExportService = productExportService;
+    }
+
+    // Ya puede haber tráfico: los cambios confirmados durante la carga se reaplican al terminar
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        AtomicLong count = new AtomicLong();
+        rebuildBuffer.rebuild(() -> count.set(productExportService.forEachProduct(snapshot::put)));
+        logger.info("Catalog snapshot built with {} products in {} ms", count.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildBuffer.apply(() -> {
+            if (event.type() == ChangeType.DELETED) {
+                snapshot.remove(event.productId());
+            } else {
+                snapshot.put(event.product());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(ProductInventoryChangedEvent event) {
+        rebuildBuffer.apply(() -> snapshot.updateInventory(event.productId(), event.price(), event.stock()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            rebuildBuffer.apply(() -> snapshot.removeCategory(event.categoryId()));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.product_service.changes;
+
+import com.example.product_service.dto.ChangeEventDto;
+import com.example.product_service.dto.ChangeFeedDto;
+import com.example.product_service.exception.InvalidPageRequestException;
+import com.example.product_service.model.ChangeEvent;
+import com.example.product_service.repository.ChangeEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Entrega los cambios ya publicados por offset: lectura directa, long-poll y suscripciones SSE.
+// Cada consumidor lleva su propio cursor; el aviso del relay solo evita esperar al siguiente poll,
+// y quien se haya quedado atrás vuelve a leer desde la tabla
+@Component
+public class ChangeFeed {
+
+    public static final int MAX_BATCH = 500;
+    // Por debajo del timeout de peticiones asíncronas del contenedor (30 s por defecto)
+    public static final Duration MAX_WAIT = Duration.ofSeconds(25);
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor taskExecutor;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile long lastDispatchedOffset;
+
+    public ChangeFeed(ChangeEventRepository changeEventRepository, ObjectMapper objectMapper,
+            TaskExecutor taskExecutor) {
+        this.changeEventRepository = changeEventRepository;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public List<ChangeEventDto> readAfter(long offset, int limit) {
+        return changeEventRepository.findByStreamOffsetGreaterThanOrderByStreamOffsetAsc(
+                        offset, PageRequest.of(0, limit))
+                .stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    // Responde en cuanto haya cambios posteriores a 'after' o, sin cambios, al vencer la espera
+    public CompletableFuture<ChangeFeedDto> poll(long after, int limit, Duration wait) {
+        if (after < 0) {
+            throw new InvalidPageRequestException("Offset must be zero or greater");
+        }
+        if (limit < 1) {
+            throw new InvalidPageRequestException("Limit must be at least 1");
+        }
+        Waiter waiter = new Waiter(after, Math.min(limit, MAX_BATCH));
+        Duration maxWait = wait.compareTo(MAX_WAIT) > 0 ? MAX_WAIT : wait;
+        // Registrado antes de leer: un aviso entre la lectura y el registro no se pierde
+        waiters.add(waiter);
+        waiter.future.whenComplete((result, ex) -> waiters.remove(waiter));
+
+        List<ChangeEventDto> events = readAfter(after, waiter.limit);
+        if (!events.isEmpty() || maxWait.isZero() || maxWait.isNegative()) {
+            waiter.complete(events);
+        } else {
+            waiter.future.completeOnTimeout(new ChangeFeedDto(List.of(), after), maxWait.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        return waiter.future;
+    }
+
+    // Envía lo pendiente desde 'after' y después cada lote publicado; el id de cada evento SSE es su offset
+    public SseEmitter subscribe(long after, Duration timeout) {
+        if (after < 0) {
+            throw new InvalidPageRequestException("Offset must be zero or greater");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, after);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        taskExecutor.execute(subscriber::catchUp);
+        return emitter;
+    }
+
+    // Llamado por el relay tras cada ciclo, con lo publicado por esta instancia o por otra
+    void dispatch() {
+        long latest = changeEventRepository.findMaxStreamOffset();
+        long previous = lastDispatchedOffset;
+        if (latest <= previous) {
+            return;
+        }
+        lastDispatchedOffset = latest;
+        if (waiters.isEmpty() && subscribers.isEmpty()) {
+            return;
+        }
+
+        List<ChangeEventDto> recent = readAfter(previous, MAX_BATCH);
+        for (Waiter waiter : waiters) {
+            List<ChangeEventDto> events = waiter.after >= previous
+                    ? recent.stream().filter(event -> event.getOffset() > waiter.after).limit(waiter.limit).toList()
+                    : readAfter(waiter.after, waiter.limit);
+            if (!events.isEmpty()) {
+                waiter.complete(events);
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            taskExecutor.execute(() -> subscriber.deliver(previous, recent));
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private ChangeEventDto toDto(ChangeEvent event) {
+        try {
+            return ChangeEventDto.fromEntity(event,
+                    event.getPayload() == null ? null : objectMapper.readTree(event.getPayload()));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static final class Waiter {
+
+        private final long after;
+        private final int limit;
+        private final CompletableFuture<ChangeFeedDto> future = new CompletableFuture<>();
+
+        private Waiter(long after, int limit) {
+            this.after = after;
+            this.limit = limit;
+        }
+
+        private void complete(List<ChangeEventDto> events) {
+            future.complete(new ChangeFeedDto(events, after));
+        }
+    }
+
+    // Los envíos a un mismo cliente se serializan; el cursor evita duplicados si dos avisos se solapan
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long cursor;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        private synchronized void catchUp() {
+            List<ChangeEventDto> events;
+            do {
+                events = readAfter(cursor, MAX_BATCH);
+                send(events);
+            } while (!closed && events.size() == MAX_BATCH);
+        }
+
+        private synchronized void deliver(long previous, List<ChangeEventDto> recent) {
+            if (closed) {
+                return;
+            }
+            if (cursor >= previous) {
+                send(recent.stream().filter(event -> event.getOffset() > cursor).toList());
+                if (recent.size() < MAX_BATCH) {
+                    return;
+                }
+            }
+            catchUp();
+        }
+
+        private void send(List<ChangeEventDto> events) {
+            try {
+                for (ChangeEventDto event : events) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.getOffset()))
+                            .data(event, MediaType.APPLICATION_JSON));
+                    cursor = event.getOffset();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Cliente desconectado o emisor ya cerrado: se reconecta con Last-Event-ID
+                logger.debug("Dropping change stream subscriber: {}", ex.getMessage());
+                close();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.product_service.changes;
+
+import com.example.product_service.event.CategoryChangedEvent;
+import com.example.product_service.event.ChangeType;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.example.product_service.model.ChangeEvent;
+import com.example.product_service.model.ChangeEvent.AggregateType;
+import com.example.product_service.repository.ChangeEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+// Listener síncrono (no transaccional): el evento se inserta en el outbox dentro de la transacción que hizo
+// el cambio, así que un rollback descarta ambos y un commit los confirma juntos
+@Component
+public class ChangeOutboxWriter {
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public ChangeOutboxWriter(ChangeEventRepository changeEventRepository, ObjectMapper objectMapper) {
+        this.changeEventRepository = changeEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        write(AggregateType.PRODUCT, event.productId(), event.type(), event.product());
+    }
+
+    @EventListener
+    public void onInventoryChanged(ProductInventoryChangedEvent event) {
+        write(AggregateType.PRODUCT_INVENTORY, event.productId(), ChangeType.UPDATED, event);
+    }
+
+    // La baja de una categoría implica la de sus productos; no se emite un evento por producto
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        write(AggregateType.CATEGORY, event.categoryId(), event.type(), event.category());
+    }
+
+    private void write(AggregateType aggregateType, Long aggregateId, ChangeType changeType, Object payload) {
+        try {
+            String json = payload == null ? null : objectMapper.writeValueAsString(payload);
+            long sequence = nextSequence(aggregateType, aggregateId, changeType);
+            changeEventRepository.save(new ChangeEvent(aggregateType, aggregateId, sequence, changeType, json));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Quien publica tiene bloqueada la fila del agregado hasta el commit (la leyó con findLockedById o la
+    // modificó con un UPDATE), así que otra transacción sobre el mismo agregado llega aquí después de
+    // confirmar la suya y ve su evento. El id no sirve para ordenar: sale de un bloque de la secuencia
+    // reservado al persistir, distinto en cada instancia
+    private long nextSequence(AggregateType aggregateType, Long aggregateId, ChangeType changeType) {
+        // Un alta no tiene eventos anteriores: los lotes de altas no pagan la consulta
+        if (changeType == ChangeType.CREATED) {
+            return 1;
+        }
+        return changeEventRepository.findMaxAggregateSequence(aggregateId, aggregateType.sequenceGroup()) + 1;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.product_service.changes;
+
+import com.example.product_service.model.ChangeEvent;
+import com.example.product_service.repository.ChangeEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Publica el outbox por lotes: asigna offsets consecutivos a los eventos pendientes, de modo que un evento
+// confirmado tarde nunca aparece por detrás de un offset ya entregado, y luego avisa al feed. Dentro de un
+// agregado los offsets siguen aggregateSequence (orden de commit), no el id.
+// Con varias instancias la restricción única del offset deja confirmar un solo relay por lote; el otro
+// reintenta en el ciclo siguiente (o se desactiva con product.changes.relay.enabled=false).
+@Component
+public class ChangeRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeRelay.class);
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+
+    public ChangeRelay(ChangeEventRepository changeEventRepository, ChangeFeed changeFeed,
+            PlatformTransactionManager transactionManager,
+            @Value("${product.changes.relay.enabled:true}") boolean enabled,
+            @Value("${product.changes.relay.batch-size:500}") int batchSize,
+            @Value("${product.changes.retention:7d}") Duration retention) {
+        this.changeEventRepository = changeEventRepository;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${product.changes.relay.interval-ms:500}")
+    public void relay() {
+        if (enabled) {
+            try {
+                // Hasta vaciar: un lote puede quedar corto porque el siguiente evento de un agregado espera al suyo
+                int published;
+                do {
+                    published = transactionTemplate.execute(status -> publishBatch());
+                } while (published > 0);
+            } catch (DataIntegrityViolationException ex) {
+                logger.debug("Change batch already published by another relay: {}", ex.getMessage());
+            }
+        }
+        // También con el relay desactivado: los consumidores de esta instancia ven lo publicado por otra
+        changeFeed.dispatch();
+    }
+
+    // Los consumidores con un offset anterior a la retención deben resincronizar con el listado completo
+    @Scheduled(fixedDelayString = "${product.changes.cleanup-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> changeEventRepository.deletePublishedBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} change events published before {}", deleted, cutoff);
+        }
+    }
+
+    private int publishBatch() {
+        List<ChangeEvent> pending = changeEventRepository.findPublishable(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long offset = changeEventRepository.findMaxStreamOffset();
+        LocalDateTime now = LocalDateTime.now();
+        for (ChangeEvent event : pending) {
+            event.publish(++offset, now);
+        }
+        return pending.size();
+    }
+}
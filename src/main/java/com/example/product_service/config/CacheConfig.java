@@ -0,0 +1,34 @@
+package com.example.product_service.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Los límites (tamaño y TTL) y las estadísticas se configuran con spring.cache.caffeine.spec
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+
+    // Dentro de una transacción, los put y evict se aplican después del commit. Si el evict de una escritura
+    // ocurriera antes, una lectura concurrente volvería a cachear la fila anterior durante todo el TTL.
+    // Las métricas de Actuator desenvuelven el decorador y siguen viendo las cachés de Caffeine
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (spec != null && !spec.isBlank()) {
+            caffeineCacheManager.setCacheSpecification(spec);
+        }
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.product_service.config;
+
+import com.example.product_service.catalog.CatalogSnapshot;
+import com.example.product_service.catalog.CatalogSnapshotUpdater;
+import com.example.product_service.service.ProductExportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Copia columnar del catálogo en memoria (opcional): sirve /api/products/snapshot sin pasar por la base
+@Configuration
+@ConditionalOnProperty(name = CatalogSnapshotConfig.ENABLED, havingValue = "true")
+public class CatalogSnapshotConfig {
+
+    public static final String ENABLED = "product.catalog-snapshot.enabled";
+
+    @Bean
+    public CatalogSnapshot catalogSnapshot() {
+        return new CatalogSnapshot();
+    }
+
+    @Bean
+    public CatalogSnapshotUpdater catalogSnapshotUpdater(CatalogSnapshot catalogSnapshot,
+            ProductExportService productExportService) {
+        return new CatalogSnapshotUpdater(catalogSnapshot, productExportService);
+    }
+}
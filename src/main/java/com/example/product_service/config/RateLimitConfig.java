@@ -0,0 +1,44 @@
+package com.example.product_service.config;
+
+import com.example.product_service.ratelimit.RateLimitInterceptor;
+import com.example.product_service.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Límite de peticiones por cliente delante de los endpoints de productos y categorías
+@Configuration
+@ConditionalOnProperty(name = "product.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimiter readLimiter;
+    private final RateLimiter writeLimiter;
+    private final RateLimitInterceptor interceptor;
+
+    public RateLimitConfig(MeterRegistry meterRegistry,
+            @Value("${product.rate-limit.read.requests-per-second:50}") double readRate,
+            @Value("${product.rate-limit.read.burst:100}") int readBurst,
+            @Value("${product.rate-limit.write.requests-per-second:10}") double writeRate,
+            @Value("${product.rate-limit.write.burst:20}") int writeBurst,
+            @Value("${product.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader) {
+        this.readLimiter = new RateLimiter(readRate, readBurst);
+        this.writeLimiter = new RateLimiter(writeRate, writeBurst);
+        this.interceptor = new RateLimitInterceptor(readLimiter, writeLimiter, apiKeyHeader, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/products/**", "/api/categories/**");
+    }
+
+    // Descarta las cubetas de clientes inactivos (ya llenas de nuevo)
+    @Scheduled(fixedDelayString = "${product.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        readLimiter.evictIdle();
+        writeLimiter.evictIdle();
+    }
+}
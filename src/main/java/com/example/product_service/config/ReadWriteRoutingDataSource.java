@@ -0,0 +1,95 @@
+package com.example.product_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+// Envía las transacciones de solo lectura a la réplica y todo lo demás al primario.
+// Debe ir dentro de un LazyConnectionDataSourceProxy: el gestor de transacciones pide la conexión antes de
+// marcar la transacción como readOnly, así que la conexión real se obtiene recién en la primera sentencia.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    // Lecturas del hilo actual forzadas al primario (read-your-writes tras una escritura del mismo cliente)
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryIntervalMillis;
+    private volatile long replicaRetryAt;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryIntervalMillis = retryInterval.toMillis();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static void pinToPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PRIMARY_PINNED.remove();
+    }
+
+    public boolean isReplicaAvailable() {
+        return System.currentTimeMillis() >= replicaRetryAt;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_PINNED.get() == null) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException ex) {
+                markReplicaDown(ex);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException ex) {
+                markReplicaDown(ex);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        return determineCurrentLookupKey() == Route.REPLICA && isReplicaAvailable();
+    }
+
+    // Réplica caída: las lecturas van al primario y no se reintenta hasta pasado el intervalo,
+    // para no pagar el timeout de conexión en cada petición
+    private void markReplicaDown(SQLException ex) {
+        replicaRetryAt = System.currentTimeMillis() + retryIntervalMillis;
+        logger.warn("Read replica unavailable, routing reads to primary for {} ms: {}",
+                retryIntervalMillis, ex.getMessage());
+    }
+}
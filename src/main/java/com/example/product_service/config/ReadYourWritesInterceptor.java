@@ -0,0 +1,56 @@
+package com.example.product_service.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Set;
+
+// Tras una escritura, las lecturas del mismo cliente van al primario durante la ventana configurada
+// (cookie con Max-Age), para no devolverle datos de una réplica que aún no aplicó su cambio
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String COOKIE_NAME = "rw-primary";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration stickyWindow;
+
+    public ReadYourWritesInterceptor(Duration stickyWindow) {
+        // Max-Age va en segundos: se redondea hacia arriba para no acortar la ventana
+        this.stickyWindow = Duration.ofSeconds(Math.max(1, (stickyWindow.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!READ_METHODS.contains(request.getMethod())) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, "1")
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .maxAge(stickyWindow)
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            ReadWriteRoutingDataSource.pinToPrimary();
+        } else if (WebUtils.getCookie(request, COOKIE_NAME) != null) {
+            ReadWriteRoutingDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReadWriteRoutingDataSource.unpin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadWriteRoutingDataSource.unpin();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.product_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas periódicas: relay y purga del outbox de cambios (ChangeRelay)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
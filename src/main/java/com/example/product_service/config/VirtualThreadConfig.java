@@ -0,0 +1,35 @@
+package com.example.product_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Activo solo con spring.threads.virtual.enabled=true: Tomcat atiende cada petición en un hilo virtual
+// y el acceso al pool JDBC queda acotado por ConnectionLimitingDataSource.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    logger.info("Limiting JDBC access to {} concurrent connections for virtual threads",
+                            hikari.getMaximumPoolSize());
+                    return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                            hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+}
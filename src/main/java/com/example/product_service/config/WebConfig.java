@@ -0,0 +1,33 @@
+package com.example.product_service.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// JSON por defecto; con jackson-dataformat-cbor/smile en el classpath Spring MVC registra los conversores
+// binarios y los elige según el header Accept
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    public static final String CBOR = "application/cbor";
+    public static final String SMILE = "application/x-jackson-smile";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryOnAcceptInterceptor()).addPathPatterns("/api/**");
+    }
+
+    // El cuerpo depende del Accept: las cachés intermedias no deben mezclar JSON y binario
+    static class VaryOnAcceptInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.product_service.controller;
+
+import com.example.product_service.catalog.CatalogSnapshot;
+import com.example.product_service.config.CatalogSnapshotConfig;
+import com.example.product_service.exception.ProductNotFoundException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+// Lecturas servidas desde la copia en memoria: mismos campos que ProductDto, solo JSON. Refleja los cambios
+// confirmados en esta instancia; con varias instancias cada una se actualiza con sus propias escrituras
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("api/products/snapshot")
+@ConditionalOnProperty(name = CatalogSnapshotConfig.ENABLED, havingValue = "true")
+public class CatalogSnapshotController {
+
+    private final CatalogSnapshot snapshot;
+    private final JsonFactory jsonFactory;
+
+    public CatalogSnapshotController(CatalogSnapshot snapshot, ObjectMapper objectMapper) {
+        this.snapshot = snapshot;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @GetMapping
+    public void getProducts(@RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "20") int size, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = createGenerator(response)) {
+            snapshot.writePage(after, size, generator);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public void getProductById(@PathVariable long id, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = createGenerator(response)) {
+            if (!snapshot.writeProduct(id, generator)) {
+                throw new ProductNotFoundException("Product with ID " + id + " not found");
+            }
+        }
+    }
+
+    // Sin cerrar el stream de la respuesta: si el producto no existe aún puede responder el 404
+    private JsonGenerator createGenerator(HttpServletResponse response) throws IOException {
+        return jsonFactory.createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
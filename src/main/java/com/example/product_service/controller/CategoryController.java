@@ -1,14 +1,19 @@
 package com.example.product_service.controller;
 
 import com.example.product_service.dto.CategoryDto;
+import com.example.product_service.dto.CategoryStatsDto;
+import com.example.product_service.dto.EntityVersion;
+import com.example.product_service.dto.VersionedCategories;
 import com.example.product_service.service.CategoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -28,14 +33,30 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
+    public ResponseEntity<List<CategoryDto>> getAllCategories(WebRequest request) {
         logger.info("Retrieving all categories.");
-        return ResponseEntity.ok(categoryService.getAllCategories());
+        // Solo ETag: un borrado no mueve la última fecha de modificación del listado
+        VersionedCategories versioned = categoryService.getVersionedCategories();
+        if (request.checkNotModified(versioned.version().etag())) {
+            return null;
+        }
+        return ResponseEntity.ok(versioned.categories());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStatsDto>> getCategoryStats() {
+        logger.info("Retrieving category stats.");
+        return ResponseEntity.ok(categoryService.getCategoryStats());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id, WebRequest request) {
         logger.info("Retrieving a category...");
+        Optional<EntityVersion> version = categoryService.findCategoryVersion(id);
+        if (version.isPresent()
+                && request.checkNotModified(version.get().etag(), version.get().lastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(categoryService.getCategoryById(id));
     }
 
@@ -0,0 +1,44 @@
+package com.example.product_service.controller;
+
+import com.example.product_service.changes.ChangeFeed;
+import com.example.product_service.dto.ChangeFeedDto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// Cambios de productos y categorías para réplicas del catálogo en otros servicios:
+// se reanuda desde el último offset procesado en lugar de volver a recorrer el listado
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("api/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+    private final Duration streamTimeout;
+
+    public ChangeFeedController(ChangeFeed changeFeed,
+            @Value("${product.changes.stream-timeout:30m}") Duration streamTimeout) {
+        this.changeFeed = changeFeed;
+        this.streamTimeout = streamTimeout;
+    }
+
+    // Long-poll: con wait > 0 la respuesta espera hasta que haya cambios o venza el plazo (máximo 25 s)
+    @GetMapping
+    public CompletableFuture<ChangeFeedDto> getChanges(@RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long wait) {
+        return changeFeed.poll(after, limit, Duration.ofSeconds(wait));
+    }
+
+    // Al reconectar, el navegador envía Last-Event-ID y tiene prioridad sobre 'after'
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : after, streamTimeout);
+    }
+}
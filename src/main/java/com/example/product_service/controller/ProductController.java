@@ -1,17 +1,34 @@
 package com.example.product_service.controller;
 
+import com.example.product_service.dto.BulkPatchResultDto;
+import com.example.product_service.dto.EntityVersion;
 import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductLookupDto;
+import com.example.product_service.dto.ProductPageDto;
+import com.example.product_service.dto.ProductPatchDto;
+import com.example.product_service.dto.StockDto;
+import com.example.product_service.dto.StockRequestDto;
+import com.example.product_service.dto.VersionedProductPage;
 import com.example.product_service.exception.ProductNotFoundException;
+import com.example.product_service.responsecache.ProductResponseCache;
+import com.example.product_service.service.ProductBulkUpdateService;
+import com.example.product_service.service.ProductExportService;
 import com.example.product_service.service.ProductService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @CrossOrigin(origins = "http://localhost:4200")
 @RestController
@@ -19,22 +36,66 @@ import java.util.List;
 public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    public static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductBulkUpdateService productBulkUpdateService;
+    private final ProductResponseCache productResponseCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductExportService productExportService,
+            ProductBulkUpdateService productBulkUpdateService, ProductResponseCache productResponseCache) {
         this.productService = productService;
+        this.productExportService = productExportService;
+        this.productBulkUpdateService = productBulkUpdateService;
+        this.productResponseCache = productResponseCache;
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        logger.info("Fetching all products...");
-        List<ProductDto> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<ProductPageDto> getProducts(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "id") String sort, WebRequest request) {
+        logger.info("Fetching a page of products...");
+        // Solo ETag: un borrado dentro de la página no mueve la última fecha de modificación
+        VersionedProductPage versioned = productService.getVersionedProductPage(cursor, size, sort);
+        if (request.checkNotModified(versioned.version().etag())) {
+            return null;
+        }
+        return ResponseEntity.ok(versioned.page());
+    }
+
+    // GET /api/products?ids=3,1,7: varios productos en una petición, en el orden pedido
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookupDto> getProductsByIds(@RequestParam List<Long> ids) {
+        logger.info("Fetching {} products by ID...", ids.size());
+        ProductLookupDto lookup = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(lookup);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportProducts(HttpServletResponse response) throws IOException {
+        logger.info("Exporting product catalog...");
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        long exported = productExportService.exportProducts(response.getOutputStream());
+        logger.info("Exported {} products", exported);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, WebRequest request,
+            HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws IOException {
         logger.info("Fetching product by ID...");
+        // 304 sin cargar ni serializar el producto; si no existe, getProductById responde 404
+        Optional<EntityVersion> version = productService.findProductVersion(id);
+        if (version.isPresent()
+                && request.checkNotModified(version.get().etag(), version.get().lastModifiedMillis())) {
+            return null;
+        }
+        // JSON ya codificado para esta versión; CBOR y Smile siguen por los conversores de mensajes
+        if (version.isPresent() && productResponseCache.write(id, version.get().etag(),
+                () -> productService.findVersionedProduct(id), servletRequest, servletResponse)) {
+            return null;
+        }
         ProductDto product = productService.getProductById(id);
         return ResponseEntity.ok(product);
     }
@@ -46,6 +107,24 @@ public class ProductController {
         return ResponseEntity.ok(createdProduct);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductDto>> createProducts(
+            @Valid @Size(min = 1, max = ProductService.MAX_BATCH_SIZE) @RequestBody List<ProductDto> productDtos) {
+        logger.info("Creating {} products in batch...", productDtos.size());
+        List<ProductDto> createdProducts = productService.createProducts(productDtos);
+        return ResponseEntity.ok(createdProducts);
+    }
+
+    // Listas de precios de proveedores: cambios de precio/stock aplicados en lotes JDBC
+    @PatchMapping
+    public ResponseEntity<BulkPatchResultDto> patchProducts(
+            @Valid @Size(min = 1, max = ProductBulkUpdateService.MAX_PATCH_SIZE) @RequestBody List<ProductPatchDto> patches) {
+        logger.info("Applying {} price/stock changes...", patches.size());
+        BulkPatchResultDto result = productBulkUpdateService.patchProducts(patches);
+        logger.info("Updated {} products, {} not found", result.getUpdated(), result.getNotFound());
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
         logger.info("Updating a product...");
@@ -53,6 +132,18 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    @PostMapping("/{id}/stock/reserve")
+    public ResponseEntity<StockDto> reserveStock(@PathVariable Long id, @Valid @RequestBody StockRequestDto request) {
+        logger.info("Reserving stock for a product...");
+        return ResponseEntity.ok(productService.reserveStock(id, request.getQuantity()));
+    }
+
+    @PostMapping("/{id}/stock/release")
+    public ResponseEntity<StockDto> releaseStock(@PathVariable Long id, @Valid @RequestBody StockRequestDto request) {
+        logger.info("Releasing stock for a product...");
+        return ResponseEntity.ok(productService.releaseStock(id, request.getQuantity()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteProduct(@PathVariable Long id) {
         logger.info("Deleting a product...");
@@ -0,0 +1,47 @@
+package com.example.product_service.controller;
+
+import com.example.product_service.dto.ImportJobDto;
+import com.example.product_service.service.ProductImportService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("api/products/imports")
+public class ProductImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportController.class);
+    public static final String CSV = "text/csv";
+
+    private final ProductImportService productImportService;
+
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    // El cuerpo es el CSV completo; se lee como stream, sin límites de multipart ni carga en memoria
+    @PostMapping(consumes = {CSV, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportJobDto> startImport(@RequestParam(defaultValue = "products.csv") String fileName,
+            InputStream content) throws IOException {
+        logger.info("Starting product import from {}...", fileName);
+        return ResponseEntity.accepted().body(productImportService.startImport(fileName, content));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDto> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(productImportService.getImport(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobDto> resumeImport(@PathVariable Long id) {
+        logger.info("Resuming product import {}...", id);
+        return ResponseEntity.accepted().body(productImportService.resumeImport(id));
+    }
+}
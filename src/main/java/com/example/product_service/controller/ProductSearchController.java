@@ -0,0 +1,35 @@
+package com.example.product_service.controller;
+
+import com.example.product_service.dto.ProductSearchResultDto;
+import com.example.product_service.search.ProductSearchCriteria;
+import com.example.product_service.search.ProductSearchIndex;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+@CrossOrigin(origins = "http://localhost:4200")
+@RestController
+@RequestMapping("api/products/search")
+public class ProductSearchController {
+
+    private final ProductSearchIndex searchIndex;
+
+    public ProductSearchController(ProductSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @GetMapping
+    public ResponseEntity<ProductSearchResultDto> searchProducts(@RequestParam(required = false) String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        ProductSearchCriteria criteria = new ProductSearchCriteria(q, categoryId, minPrice, maxPrice, inStock,
+                page, size);
+        return ResponseEntity.ok(searchIndex.search(criteria));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.product_service.dto;
+
+import java.util.List;
+
+public class BulkPatchResultDto {
+
+    private int updated;
+
+    private int notFound;
+
+    // Un resultado por fila, en el mismo orden de la petición
+    private List<ProductPatchResultDto> results;
+
+    public BulkPatchResultDto() {
+    }
+
+    public BulkPatchResultDto(List<ProductPatchResultDto> results) {
+        this.results = results;
+        for (ProductPatchResultDto result : results) {
+            if (result.getStatus() == ProductPatchResultDto.Status.UPDATED) {
+                updated++;
+            } else if (result.getStatus() == ProductPatchResultDto.Status.NOT_FOUND) {
+                notFound++;
+            }
+        }
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+
+    public List<ProductPatchResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ProductPatchResultDto> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.product_service.dto;
+
+import java.math.BigDecimal;
+
+public class CategoryStatsDto {
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private long productCount;
+
+    private long totalStock;
+
+    // Suma de precio x stock de los productos de la categoría
+    private BigDecimal stockValue;
+
+    public CategoryStatsDto() {
+    }
+
+    // Usado por la consulta agrupada de CategoryRepository (constructor expression de JPQL)
+    public CategoryStatsDto(Long categoryId, String categoryName, Long productCount, Long totalStock,
+            BigDecimal stockValue) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.productCount = productCount;
+        this.totalStock = totalStock != null ? totalStock : 0;
+        this.stockValue = stockValue != null ? stockValue : BigDecimal.ZERO;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    public long getTotalStock() {
+        return totalStock;
+    }
+
+    public void setTotalStock(long totalStock) {
+        this.totalStock = totalStock;
+    }
+
+    public BigDecimal getStockValue() {
+        return stockValue;
+    }
+
+    public void setStockValue(BigDecimal stockValue) {
+        this.stockValue = stockValue;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.product_service.dto;
+
+import com.example.product_service.model.ChangeEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+public class ChangeEventDto {
+
+    // Posición en el flujo; el consumidor la guarda y reanuda con after/Last-Event-ID
+    private long offset;
+
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    private String changeType;
+
+    private LocalDateTime occurredAt;
+
+    private JsonNode payload;
+
+    public static ChangeEventDto fromEntity(ChangeEvent event, JsonNode payload) {
+        ChangeEventDto dto = new ChangeEventDto();
+        dto.setOffset(event.getStreamOffset());
+        dto.setAggregateType(event.getAggregateType().name());
+        dto.setAggregateId(event.getAggregateId());
+        dto.setChangeType(event.getChangeType().name());
+        dto.setOccurredAt(event.getCreatedAt());
+        dto.setPayload(payload);
+        return dto;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public JsonNode getPayload() {
+        return payload;
+    }
+
+    public void setPayload(JsonNode payload) {
+        this.payload = payload;
+    }
+}
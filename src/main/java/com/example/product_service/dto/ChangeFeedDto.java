@@ -0,0 +1,35 @@
+package com.example.product_service.dto;
+
+import java.util.List;
+
+public class ChangeFeedDto {
+
+    private List<ChangeEventDto> events;
+
+    // Offset a enviar en la siguiente petición (el último entregado, o el mismo si no hubo cambios)
+    private long nextOffset;
+
+    public ChangeFeedDto() {
+    }
+
+    public ChangeFeedDto(List<ChangeEventDto> events, long after) {
+        this.events = events;
+        this.nextOffset = events.isEmpty() ? after : events.get(events.size() - 1).getOffset();
+    }
+
+    public List<ChangeEventDto> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<ChangeEventDto> events) {
+        this.events = events;
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(long nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.product_service.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Validador de un listado calculado con las filas que devuelve: cualquier alta, baja o modificación dentro
+// del listado cambia sus validadores y con ellos el ETag, sin recorrer la tabla entera para obtenerlo
+public record CollectionVersion(String digest) {
+
+    // El cursor siguiente cuenta porque una fila nueva tras el final de la página lo cambia
+    public static CollectionVersion of(List<EntityVersion> rows, String nextCursor) {
+        StringBuilder validators = new StringBuilder();
+        rows.forEach(row -> validators.append(row.etag()));
+        if (nextCursor != null) {
+            validators.append(nextCursor);
+        }
+        return new CollectionVersion(DigestUtils.md5DigestAsHex(validators.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // ETag débil porque el listado no se compara byte a byte entre páginas u ordenamientos
+    public String etag() {
+        return "W/\"" + digest + "\"";
+    }
+}
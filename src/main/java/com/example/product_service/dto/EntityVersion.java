@@ -0,0 +1,26 @@
+package com.example.product_service.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Validadores HTTP de un recurso, leídos con una proyección sin cargar la entidad
+public record EntityVersion(Long id, LocalDateTime lastModified, Long version) {
+
+    public EntityVersion(Long id, LocalDateTime lastModified) {
+        this(id, lastModified, null);
+    }
+
+    // ETag fuerte: cambia con cada modificación persistida del recurso
+    public String etag() {
+        String etag = id + "-" + epochMillis(lastModified);
+        return "\"" + (version != null ? etag + "-" + version : etag) + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified != null ? epochMillis(lastModified) : -1;
+    }
+
+    static long epochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+}
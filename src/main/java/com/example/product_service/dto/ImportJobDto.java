@@ -0,0 +1,131 @@
+package com.example.product_service.dto;
+
+import com.example.product_service.model.ProductImportJob;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class ImportJobDto {
+
+    private Long id;
+
+    private String fileName;
+
+    private String status;
+
+    private long processedRows;
+
+    private long importedRows;
+
+    private long rejectedRows;
+
+    // Ritmo de la ejecución actual (o de la última, si ya terminó)
+    private double rowsPerSecond;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String lastError;
+
+    public static ImportJobDto fromEntity(ProductImportJob job) {
+        ImportJobDto dto = new ImportJobDto();
+        dto.setId(job.getId());
+        dto.setFileName(job.getFileName());
+        dto.setStatus(job.getStatus().name());
+        dto.setProcessedRows(job.getProcessedRows());
+        dto.setImportedRows(job.getImportedRows());
+        dto.setRejectedRows(job.getRejectedRows());
+        dto.setStartedAt(job.getRunStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setLastError(job.getLastError());
+        if (job.getRunStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            long millis = Duration.between(job.getRunStartedAt(), end).toMillis();
+            if (millis > 0) {
+                dto.setRowsPerSecond((job.getProcessedRows() - job.getRunStartRows()) * 1000.0 / millis);
+            }
+        }
+        return dto;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(long processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.*;
 import com.example.product_service.model.Product;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ProductDto {
@@ -40,8 +41,10 @@ public class ProductDto {
         dto.setDescription(product.getDescription());
         dto.setPrice(product.getPrice());
         dto.setStock(product.getStock());
+        // El id se lee del proxy LAZY sin inicializar la categoría
         dto.setCategoryId(product.getCategory().getId());
-        dto.setImageUrls(product.getImageUrls());
+        // Copia desacoplada de la colección persistente para poder usar el DTO fuera de la sesión
+        dto.setImageUrls(product.getImageUrls() == null ? null : new ArrayList<>(product.getImageUrls()));
         return dto;
     }
 
@@ -0,0 +1,36 @@
+package com.example.product_service.dto;
+
+import java.util.List;
+
+public class ProductLookupDto {
+
+    // Productos encontrados, en el orden en que se pidieron los ids (sin repetir)
+    private List<ProductDto> products;
+
+    // Ids pedidos que no existen, también en el orden de la petición
+    private List<Long> missingIds;
+
+    public ProductLookupDto() {
+    }
+
+    public ProductLookupDto(List<ProductDto> products, List<Long> missingIds) {
+        this.products = products;
+        this.missingIds = missingIds;
+    }
+
+    public List<ProductDto> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<ProductDto> products) {
+        this.products = products;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
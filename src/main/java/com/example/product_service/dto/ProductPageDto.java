@@ -0,0 +1,46 @@
+package com.example.product_service.dto;
+
+import java.util.List;
+
+public class ProductPageDto {
+
+    private List<ProductDto> items;
+
+    private int size;
+
+    // Null when there are no more products after this page
+    private String nextCursor;
+
+    public ProductPageDto() {
+    }
+
+    public ProductPageDto(List<ProductDto> items, String nextCursor) {
+        this.items = items;
+        this.size = items.size();
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProductDto> items) {
+        this.items = items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.product_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+// Cambio parcial de precio y/o stock; un campo null conserva el valor actual
+public class ProductPatchDto {
+
+    @NotNull(message = "Product ID is required")
+    private Long id;
+
+    @DecimalMin(value = "0.01", inclusive = false, message = "Price must be greater than 0")
+    private BigDecimal price;
+
+    @Min(value = 0, message = "Stock cannot be negative")
+    private Integer stock;
+
+    public ProductPatchDto() {
+    }
+
+    public ProductPatchDto(Long id, BigDecimal price, Integer stock) {
+        this.id = id;
+        this.price = price;
+        this.stock = stock;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Price or stock is required")
+    public boolean isPriceOrStockPresent() {
+        return price != null || stock != null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.product_service.dto;
+
+public class ProductPatchResultDto {
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        // El driver ejecutó la fila pero no informó cuántas se modificaron (Statement.SUCCESS_NO_INFO)
+        UNKNOWN
+    }
+
+    private Long id;
+
+    private Status status;
+
+    public ProductPatchResultDto() {
+    }
+
+    public ProductPatchResultDto(Long id, Status status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
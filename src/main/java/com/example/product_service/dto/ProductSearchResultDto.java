@@ -0,0 +1,78 @@
+package com.example.product_service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ProductSearchResultDto {
+
+    private List<ProductDto> items;
+
+    private long total;
+
+    private int page;
+
+    private int size;
+
+    // Conteos por faceta: cada uno aplica todos los filtros salvo el de su propia faceta
+    private Map<Long, Long> categoryFacets;
+
+    private Map<String, Long> priceFacets;
+
+    private Map<String, Long> stockFacets;
+
+    public List<ProductDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProductDto> items) {
+        this.items = items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Map<Long, Long> getCategoryFacets() {
+        return categoryFacets;
+    }
+
+    public void setCategoryFacets(Map<Long, Long> categoryFacets) {
+        this.categoryFacets = categoryFacets;
+    }
+
+    public Map<String, Long> getPriceFacets() {
+        return priceFacets;
+    }
+
+    public void setPriceFacets(Map<String, Long> priceFacets) {
+        this.priceFacets = priceFacets;
+    }
+
+    public Map<String, Long> getStockFacets() {
+        return stockFacets;
+    }
+
+    public void setStockFacets(Map<String, Long> stockFacets) {
+        this.stockFacets = stockFacets;
+    }
+}
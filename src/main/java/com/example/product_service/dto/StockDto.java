@@ -0,0 +1,32 @@
+package com.example.product_service.dto;
+
+public class StockDto {
+
+    private Long productId;
+
+    private Integer stock;
+
+    public StockDto() {
+    }
+
+    public StockDto(Long productId, Integer stock) {
+        this.productId = productId;
+        this.stock = stock;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.product_service.dto;
+
+import java.util.List;
+
+// Listado de categorías y su validador, calculado con las mismas filas que lo componen
+public record VersionedCategories(CollectionVersion version, List<CategoryDto> categories) {
+}
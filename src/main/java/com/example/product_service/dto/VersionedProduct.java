@@ -0,0 +1,5 @@
+package com.example.product_service.dto;
+
+// Producto y sus validadores tomados de la misma lectura: el ETag describe exactamente ese contenido
+public record VersionedProduct(EntityVersion version, ProductDto product) {
+}
@@ -0,0 +1,5 @@
+package com.example.product_service.dto;
+
+// Página de productos y su validador, calculado con las mismas filas que la componen
+public record VersionedProductPage(CollectionVersion version, ProductPageDto page) {
+}
@@ -0,0 +1,19 @@
+package com.example.product_service.event;
+
+import com.example.product_service.dto.CategoryDto;
+
+// Publicado por CategoryService; un DELETED implica también la baja de todos sus productos
+public record CategoryChangedEvent(ChangeType type, Long categoryId, CategoryDto category) {
+
+    public static CategoryChangedEvent created(CategoryDto category) {
+        return new CategoryChangedEvent(ChangeType.CREATED, category.getId(), category);
+    }
+
+    public static CategoryChangedEvent updated(CategoryDto category) {
+        return new CategoryChangedEvent(ChangeType.UPDATED, category.getId(), category);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(ChangeType.DELETED, categoryId, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.product_service.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
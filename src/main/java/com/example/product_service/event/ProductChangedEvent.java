@@ -0,0 +1,19 @@
+package com.example.product_service.event;
+
+import com.example.product_service.dto.ProductDto;
+
+// Publicado por ProductService en cada alta, modificación o baja; product es null en DELETED
+public record ProductChangedEvent(ChangeType type, Long productId, ProductDto product) {
+
+    public static ProductChangedEvent created(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, null);
+    }
+}
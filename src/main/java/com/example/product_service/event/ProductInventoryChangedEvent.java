@@ -0,0 +1,11 @@
+package com.example.product_service.event;
+
+import java.math.BigDecimal;
+
+// Cambios de precio/stock aplicados sin cargar la entidad; un campo null significa "sin cambios"
+public record ProductInventoryChangedEvent(Long productId, BigDecimal price, Integer stock) {
+
+    public static ProductInventoryChangedEvent stock(Long productId, Integer stock) {
+        return new ProductInventoryChangedEvent(productId, null, stock);
+    }
+}
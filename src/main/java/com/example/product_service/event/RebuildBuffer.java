@@ -0,0 +1,53 @@
+package com.example.product_service.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Coordina una carga completa con los cambios incrementales que llegan mientras dura. La carga lee filas que
+// pueden ser anteriores a un cambio ya confirmado: si el cambio se aplicara en el momento, la copia leída
+// después lo pisaría (o reviviría un producto borrado). Por eso se retienen y se reaplican en orden al terminar;
+// los que la carga ya incluía no cambian nada, porque cada cambio deja valores absolutos
+public class RebuildBuffer {
+
+    private final Object lock = new Object();
+    // null mientras no hay carga en curso
+    private List<Runnable> pending;
+
+    public void rebuild(Runnable load) {
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            load.run();
+        } finally {
+            replayPending();
+        }
+    }
+
+    public void apply(Runnable change) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(change);
+                return;
+            }
+        }
+        change.run();
+    }
+
+    // Los cambios que llegan mientras se reaplica un tramo se guardan para el siguiente; solo con la cola
+    // vacía se vuelven a aplicar directamente, así ninguno se adelanta a otro anterior
+    private void replayPending() {
+        while (true) {
+            List<Runnable> batch;
+            synchronized (lock) {
+                batch = pending;
+                if (batch.isEmpty()) {
+                    pending = null;
+                    return;
+                }
+                pending = new ArrayList<>();
+            }
+            batch.forEach(Runnable::run);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.example.product_service.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -30,6 +32,52 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidPageRequestException(InvalidPageRequestException ex) {
+        logger.warn("Invalid page request: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Map<String, Object>> handleInsufficientStockException(InsufficientStockException ex) {
+        logger.warn("Stock reservation rejected: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Dos escrituras concurrentes sobre la misma versión del producto
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        logger.warn("Concurrent modification detected: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, "The resource was modified concurrently, please retry");
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleImportJobNotFoundException(ImportJobNotFoundException ex) {
+        logger.error("Import job not found: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(ImportJobStateException.class)
+    public ResponseEntity<Map<String, Object>> handleImportJobStateException(ImportJobStateException ex) {
+        logger.warn("Import job request rejected: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Otra petición está cargando el mismo recurso y no terminó a tiempo
+    @ExceptionHandler(LoadTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleLoadTimeoutException(LoadTimeoutException ex) {
+        logger.warn("Coalesced load timed out: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    // Sin log por petición: el volumen se ve en la métrica http.server.requests.throttled
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(buildErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()).getBody());
+    }
+
     // Otros manejadores de excepciones...
 
     // Método auxiliar para construir la respuesta de error
@@ -0,0 +1,7 @@
+package com.example.product_service.exception;
+
+public class ImportJobStateException extends RuntimeException {
+    public ImportJobStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.product_service.exception;
+
+public class LoadFailedException extends RuntimeException {
+    public LoadFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
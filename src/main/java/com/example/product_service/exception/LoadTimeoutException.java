@@ -0,0 +1,7 @@
+package com.example.product_service.exception;
+
+public class LoadTimeoutException extends RuntimeException {
+    public LoadTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.product_service.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    // Sin stack trace: se lanza en cada petición rechazada y solo interesa el tiempo de espera
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Rate limit exceeded, retry after " + retryAfterSeconds + " s", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.product_service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Filas devueltas (o afectadas, en consultas @Modifying) por cada método de repositorio.
+// El número de invocaciones y su latencia ya los publica Spring Boot como spring.data.repository.invocations.
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    public static final String ROWS_METRIC = "spring.data.repository.rows";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object recordRows(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        long rows = countRows(result, signature.getMethod().isAnnotationPresent(Modifying.class));
+        if (rows >= 0) {
+            DistributionSummary.builder(ROWS_METRIC)
+                    .tag("repository", repositoryName(joinPoint.getTarget().getClass()))
+                    .tag("method", signature.getName())
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        return result;
+    }
+
+    // -1 cuando el resultado no representa filas (streams, booleanos, proyecciones escalares)
+    private long countRows(Object result, boolean modifying) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (modifying && result instanceof Number affected) {
+            return affected.longValue();
+        }
+        return -1;
+    }
+
+    private String repositoryName(Class<?> targetClass) {
+        return repositoryNames.computeIfAbsent(targetClass, type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.product_service.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resumen del arranque para comparar configuraciones del esquema (ddl-auto=update frente a Flyway + validate):
+// tiempo total y el de los beans que tocan la base al iniciar. entityManagerFactory incluye las migraciones,
+// que Spring Boot ejecuta antes de crearlo
+@Component
+public class StartupTimingReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingReporter.class);
+
+    static final List<String> SCHEMA_BEANS = List.of("flywayInitializer", "entityManagerFactory");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        Map<String, Long> millis = beanMillis(startup.getBufferedTimeline(), SCHEMA_BEANS);
+        logger.info("Application ready in {} ms; schema beans (ms): {}",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1, millis);
+    }
+
+    static Map<String, Long> beanMillis(StartupTimeline timeline, List<String> beanNames) {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            String beanName = beanName(event.getStartupStep());
+            if (beanName != null && beanNames.contains(beanName)) {
+                millis.merge(beanName, event.getDuration().toMillis(), Long::sum);
+            }
+        }
+        return millis;
+    }
+
+    private static String beanName(StartupStep step) {
+        if (!"spring.beans.instantiate".equals(step.getName())) {
+            return null;
+        }
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                // entityManagerFactory es un FactoryBean: su creación queda registrada como &entityManagerFactory
+                return BeanFactoryUtils.transformedBeanName(tag.getValue());
+            }
+        }
+        return null;
+    }
+}
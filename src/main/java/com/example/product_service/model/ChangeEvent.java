@@ -0,0 +1,129 @@
+package com.example.product_service.model;
+
+import com.example.product_service.event.ChangeType;
+import jakarta.persistence.*;
+import org.hibernate.type.YesNoConverter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Outbox de cambios del catálogo: se inserta en la misma transacción que la mutación.
+// streamOffset lo asigna el relay al publicar, en orden de commit; es la posición que usan los consumidores.
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_change_event_published_at", columnList = "published_at"),
+        @Index(name = "idx_change_event_pending", columnList = "pending"),
+        @Index(name = "idx_change_event_aggregate", columnList = "aggregate_id, aggregate_sequence")
+})
+public class ChangeEvent {
+
+    public enum AggregateType {
+        PRODUCT,
+        // Cambio parcial de precio/stock: el payload solo trae los campos modificados
+        PRODUCT_INVENTORY,
+        CATEGORY;
+
+        // Tipos que comparten el orden del agregado: el inventario es parte del producto
+        public List<AggregateType> sequenceGroup() {
+            return this == CATEGORY ? List.of(CATEGORY) : List.of(PRODUCT, PRODUCT_INVENTORY);
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_event_seq")
+    @SequenceGenerator(name = "change_event_seq", sequenceName = "change_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private AggregateType aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    // Posición entre los eventos del agregado (1, 2, ...) en orden de commit: se asigna con la fila del
+    // agregado bloqueada. Null en los eventos anteriores a la columna
+    private Long aggregateSequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeType changeType;
+
+    // JSON del DTO tras el cambio; null en las bajas
+    @Lob
+    private String payload;
+
+    // Único: dos relays que asignen la misma posición no pueden confirmar ambos
+    @Column(unique = true)
+    private Long streamOffset;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    // 'Y' hasta publicar y null después. Oracle no guarda en un índice B-tree las claves nulas, así que
+    // idx_change_event_pending solo contiene las pendientes y el sondeo del relay no recorre todo el outbox
+    @Convert(converter = YesNoConverter.class)
+    @Column(length = 1)
+    private Boolean pending = Boolean.TRUE;
+
+    protected ChangeEvent() {
+    }
+
+    public ChangeEvent(AggregateType aggregateType, Long aggregateId, long aggregateSequence, ChangeType changeType,
+            String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.aggregateSequence = aggregateSequence;
+        this.changeType = changeType;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public void publish(long streamOffset, LocalDateTime publishedAt) {
+        this.streamOffset = streamOffset;
+        this.publishedAt = publishedAt;
+        this.pending = null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public AggregateType getAggregateType() {
+        return aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public Long getAggregateSequence() {
+        return aggregateSequence;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Long getStreamOffset() {
+        return streamOffset;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+}
@@ -1,16 +1,26 @@
 package com.example.product_service.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_category_id", columnList = "category_id")
+})
 public class Product {
 
+    // Secuencia con asignación en bloques (pooled) para permitir inserts en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -30,13 +40,20 @@ public class Product {
     private Category category;
 
 
-    // One product can have multiple images
+    // One product can have multiple images; loaded in batches to avoid one select per product.
+    // Lista indexada (image_order): Hibernate escribe solo las posiciones que cambian, no toda la colección
     @ElementCollection
+    @BatchSize(size = 128)
+    @OrderColumn(name = "image_order")
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
     private List<String> imageUrls = new ArrayList<>();
 
 
+    // Control optimista de concurrencia para las actualizaciones read-modify-write
+    @Version
+    private Long version;
+
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
@@ -108,6 +125,29 @@ public class Product {
         this.imageUrls = imageUrls;
     }
 
+    // Modifica la colección gestionada en el lugar: reemplazarla hace que Hibernate borre y reinserte todas
+    // las filas. Por posición: las iguales no generan SQL, las distintas un UPDATE, las sobrantes un DELETE
+    // y las nuevas un INSERT, agrupados en lotes JDBC. Solo es barato editar o agregar/quitar al final: las
+    // filas se identifican por (product_id, image_order), así que quitar o insertar una URL antes del final
+    // desplaza todas las siguientes y cuesta un UPDATE por cada una
+    public void updateImageUrls(List<String> newImageUrls) {
+        List<String> target = newImageUrls == null ? List.of() : newImageUrls;
+        int common = Math.min(imageUrls.size(), target.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(imageUrls.get(i), target.get(i))) {
+                imageUrls.set(i, target.get(i));
+            }
+        }
+        while (imageUrls.size() > target.size()) {
+            imageUrls.remove(imageUrls.size() - 1);
+        }
+        imageUrls.addAll(target.subList(common, target.size()));
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,150 @@
+package com.example.product_service.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Estado y punto de control de una importación CSV; se actualiza en la misma transacción que cada bloque
+@Entity
+public class ProductImportJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_import_job_seq")
+    @SequenceGenerator(name = "product_import_job_seq", sequenceName = "product_import_job_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    // Copia local del CSV subido: permite reanudar sin volver a enviar el archivo
+    @Column(nullable = false, length = 1000)
+    private String filePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    // Filas de datos ya confirmadas (importadas o rechazadas); al reanudar se saltan
+    private long processedRows;
+
+    private long importedRows;
+
+    private long rejectedRows;
+
+    // Inicio de la ejecución actual y filas ya procesadas entonces, para calcular filas/segundo
+    private LocalDateTime runStartedAt;
+
+    private long runStartRows;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(long processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    public LocalDateTime getRunStartedAt() {
+        return runStartedAt;
+    }
+
+    public void setRunStartedAt(LocalDateTime runStartedAt) {
+        this.runStartedAt = runStartedAt;
+    }
+
+    public long getRunStartRows() {
+        return runStartRows;
+    }
+
+    public void setRunStartRows(long runStartRows) {
+        this.runStartRows = runStartRows;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.product_service.ratelimit;
+
+import com.example.product_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Límite por cliente (API key o, sin ella, IP) con cubetas separadas para lecturas y escrituras.
+// Las peticiones rechazadas no llegan al controlador ni piden conexión al pool.
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String THROTTLED_METRIC = "http.server.requests.throttled";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final RateLimiter readLimiter;
+    private final RateLimiter writeLimiter;
+    private final String apiKeyHeader;
+    private final Counter throttledReads;
+    private final Counter throttledWrites;
+
+    public RateLimitInterceptor(RateLimiter readLimiter, RateLimiter writeLimiter, String apiKeyHeader,
+                                MeterRegistry meterRegistry) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        this.throttledReads = Counter.builder(THROTTLED_METRIC).tag("access", "read")
+                .description("Requests rejected with 429 by the per-client rate limiter")
+                .register(meterRegistry);
+        this.throttledWrites = Counter.builder(THROTTLED_METRIC).tag("access", "write")
+                .description("Requests rejected with 429 by the per-client rate limiter")
+                .register(meterRegistry);
+        meterRegistry.gauge("rate.limiter.clients", Tags.of("access", "read"), readLimiter,
+                RateLimiter::trackedClients);
+        meterRegistry.gauge("rate.limiter.clients", Tags.of("access", "write"), writeLimiter,
+                RateLimiter::trackedClients);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean read = isRead(request.getMethod());
+        long waitNanos = (read ? readLimiter : writeLimiter).tryAcquire(clientKey(request));
+        if (waitNanos == 0) {
+            return true;
+        }
+        (read ? throttledReads : throttledWrites).increment();
+        // Retry-After en segundos enteros, redondeado hacia arriba
+        throw new RateLimitExceededException((waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    // La API key no se valida aquí; la IP es la que resuelve Tomcat
+    // (detrás de un proxy, con server.forward-headers-strategy)
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return apiKey != null && !apiKey.isEmpty() ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+}
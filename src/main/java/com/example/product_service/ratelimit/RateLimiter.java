@@ -0,0 +1,61 @@
+package com.example.product_service.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket por cliente en forma GCRA: cada cliente guarda un solo long (el instante teórico en que
+// su cubeta vuelve a estar llena) y se actualiza con CAS, sin locks ni hilo de recarga.
+// Una petición consume intervalo = 1/tasa; se rechaza si dejaría la cubeta más allá de la ráfaga.
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+    }
+
+    // 0 si se permite; si no, los nanosegundos hasta que haya un token disponible
+    public long tryAcquire(String clientKey) {
+        return tryAcquire(clientKey, System.nanoTime());
+    }
+
+    long tryAcquire(String clientKey, long now) {
+        AtomicLong bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(clientKey, key -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Una cubeta ya llena equivale a no tenerla: se descarta para acotar la memoria por cliente
+    public int evictIdle() {
+        return evictIdle(System.nanoTime());
+    }
+
+    int evictIdle(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    public int trackedClients() {
+        return buckets.size();
+    }
+}
@@ -1,8 +1,37 @@
 package com.example.product_service.repository;
 
+import com.example.product_service.dto.CategoryStatsDto;
+import com.example.product_service.dto.EntityVersion;
 import com.example.product_service.model.Category;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
+
+    // Select ... for update: ordena las modificaciones de una categoría y sus eventos en el outbox
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Category> findLockedById(Long id);
+
+    @Query("select new com.example.product_service.dto.EntityVersion(c.id, coalesce(c.updatedAt, c.createdAt)) "
+            + "from Category c where c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    // Totales por categoría en una sola consulta agrupada; el left join incluye categorías sin productos
+    @Query("select new com.example.product_service.dto.CategoryStatsDto(c.id, c.name, count(p), sum(p.stock), "
+            + "sum(p.price * p.stock)) from Category c left join c.products p "
+            + "group by c.id, c.name order by c.name")
+    List<CategoryStatsDto> findCategoryStats();
+
+    // Sin cascada de JPA: los productos se eliminan antes con ProductRepository.deleteByCategoryId
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Category c where c.id = :id")
+    int deleteCategoryById(@Param("id") Long id);
 }
@@ -0,0 +1,42 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.model.ChangeEvent;
+import com.example.product_service.model.ChangeEvent.AggregateType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    // Pendientes de publicar, en orden de inserción; lee idx_change_event_pending (solo filas pendientes)
+    List<ChangeEvent> findByPendingTrueOrderByIdAsc(Pageable pageable);
+
+    // Pendientes que pueden publicarse ya: un evento espera mientras quede pendiente otro anterior de su
+    // agregado (producto e inventario del mismo producto comparten el orden, ver AggregateType.sequenceGroup)
+    @Query("select e from ChangeEvent e where e.pending = true and not exists (select p.id from ChangeEvent p "
+            + "where p.pending = true and p.aggregateId = e.aggregateId "
+            + "and p.aggregateSequence < e.aggregateSequence "
+            + "and (p.aggregateType = e.aggregateType or (p.aggregateType <> CATEGORY and e.aggregateType <> CATEGORY))) "
+            + "order by e.id")
+    List<ChangeEvent> findPublishable(Pageable pageable);
+
+    @Query("select coalesce(max(e.aggregateSequence), 0) from ChangeEvent e "
+            + "where e.aggregateId = :aggregateId and e.aggregateType in :types")
+    long findMaxAggregateSequence(@Param("aggregateId") Long aggregateId,
+            @Param("types") Collection<AggregateType> types);
+
+    List<ChangeEvent> findByStreamOffsetGreaterThanOrderByStreamOffsetAsc(Long streamOffset, Pageable pageable);
+
+    @Query("select coalesce(max(e.streamOffset), 0) from ChangeEvent e")
+    long findMaxStreamOffset();
+
+    @Modifying
+    @Query("delete from ChangeEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
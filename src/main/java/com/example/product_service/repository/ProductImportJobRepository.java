@@ -0,0 +1,7 @@
+package com.example.product_service.repository;
+
+import com.example.product_service.model.ProductImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductImportJobRepository extends JpaRepository<ProductImportJob, Long> {
+}
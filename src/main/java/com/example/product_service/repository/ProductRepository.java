@@ -1,7 +1,94 @@
 package com.example.product_service.repository;
 
+import com.example.product_service.dto.EntityVersion;
 import com.example.product_service.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Producto con sus imágenes en una consulta; sin transacción propia, así que no retiene conexión
+    // más allá de la consulta
+    @EntityGraph(attributePaths = "imageUrls")
+    Optional<Product> findWithImagesById(Long id);
+
+    // Select ... for update: las modificaciones de un mismo producto confirman en el orden en que bloquean,
+    // y ese es el orden en que escriben su evento en el outbox
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Product> findLockedById(Long id);
+
+    // Búsqueda por lote de ids con sus imágenes en una consulta; el llamador acota el tamaño de la lista
+    @EntityGraph(attributePaths = "imageUrls")
+    List<Product> findWithImagesByIdIn(Collection<Long> ids);
+
+    // Recorre todo el catálogo con un cursor JDBC; debe consumirse dentro de una transacción y cerrarse
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p left join fetch p.imageUrls order by p.id asc")
+    Stream<Product> streamAllOrderedById();
+
+    // Paginación por keyset: el Pageable solo limita filas, nunca se usa offset
+    List<Product> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select p from Product p order by p.createdAt asc, p.id asc")
+    List<Product> findFirstPageByCreatedAt(Pageable pageable);
+
+    @Query("select p from Product p where p.createdAt > :createdAt or (p.createdAt = :createdAt and p.id > :id) "
+            + "order by p.createdAt asc, p.id asc")
+    List<Product> findPageAfterCreatedAt(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("select p from Product p order by p.price asc, p.id asc")
+    List<Product> findFirstPageByPrice(Pageable pageable);
+
+    @Query("select p from Product p where p.price > :price or (p.price = :price and p.id > :id) "
+            + "order by p.price asc, p.id asc")
+    List<Product> findPageAfterPrice(@Param("price") BigDecimal price, @Param("id") Long id, Pageable pageable);
+
+    // Descuento atómico: un solo UPDATE condicional, sin leer la entidad; devuelve 0 si no alcanza el stock
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock - :quantity, p.version = coalesce(p.version, 0) + 1, "
+            + "p.updatedAt = :now where p.id = :id and p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock + :quantity, p.version = coalesce(p.version, 0) + 1, "
+            + "p.updatedAt = :now where p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Query("select p.stock from Product p where p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    // Validadores para GET condicional: leen solo columnas, sin entidad ni colección de imágenes
+    @Query("select new com.example.product_service.dto.EntityVersion(p.id, coalesce(p.updatedAt, p.createdAt), "
+            + "p.version) from Product p where p.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    // Borrado por categoría en bloque: Hibernate elimina antes las filas de product_images con un
+    // DELETE ... WHERE product_id IN (subconsulta), sin cargar productos ni imágenes en memoria
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Product p where p.category.id = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
 }
@@ -0,0 +1,206 @@
+package com.example.product_service.responsecache;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.VersionedProduct;
+import com.example.product_service.event.CategoryChangedEvent;
+import com.example.product_service.event.ChangeType;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Respuestas JSON de GET /api/products/{id} ya codificadas (y comprimidas con gzip si superan el mínimo de
+// server.compression): un acierto copia bytes a la respuesta sin mapear ni serializar. Acotada por bytes.
+// Cada entrada guarda el ETag de la misma lectura que produjo sus bytes; si la versión actual es otra se vuelve
+// a cargar y codificar, así que tampoco sirve bytes viejos tras cambios hechos en otra instancia
+@Component
+public class ProductResponseCache {
+
+    public static final String CACHE_NAME = "productResponses";
+
+    // Objeto, arrays y ETag de cada entrada, aproximado
+    static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    record Entry(String etag, long lastModified, byte[] json, byte[] gzip) {
+    }
+
+    private final Cache<Long, Entry> cache;
+    private final ObjectWriter writer;
+    private final boolean gzipEnabled;
+    private final long gzipMinSize;
+
+    public ProductResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${product.response-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${product.response-cache.gzip:true}") boolean gzipEnabled,
+            @Value("${server.compression.min-response-size:2KB}") DataSize gzipMinSize,
+            @Value("${product.response-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, Entry entry) -> weigh(entry))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.writer = objectMapper.writerFor(ProductDto.class);
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinSize = gzipMinSize.toBytes();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Escribe el producto desde la caché si el cliente acepta JSON; false si hay que usar la negociación normal
+    // (CBOR o Smile) o el producto ya no existe, sin haber tocado el cuerpo de la respuesta.
+    // El loader debe devolver el producto con la versión leída junto a él: la entrada se guarda con ese ETag,
+    // no con el pedido, para que un producto atrasado nunca quede fijado bajo una versión más nueva. Si el
+    // loader devuelve la misma versión que ya está codificada (su caché aún no se actualizó) se reutiliza
+    public boolean write(Long id, String etag, Supplier<Optional<VersionedProduct>> loader,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return false;
+        }
+        Entry entry = cache.getIfPresent(id);
+        if (entry == null || !entry.etag().equals(etag)) {
+            Optional<VersionedProduct> loaded = loader.get();
+            if (loaded.isEmpty()) {
+                return false;
+            }
+            if (entry == null || !entry.etag().equals(loaded.get().version().etag())) {
+                entry = encode(loaded.get());
+                cache.put(id, entry);
+            }
+        }
+
+        // Validadores de la lectura que produjo el cuerpo, aunque difieran de los que se consultaron antes
+        response.setHeader(HttpHeaders.ETAG, entry.etag());
+        if (entry.lastModified() >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, entry.lastModified());
+        }
+        byte[] body = entry.json();
+        if (entry.gzip() != null) {
+            // Ya comprimido: Tomcat no vuelve a comprimir respuestas con Content-Encoding
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                // Otros bytes, así que no el mismo ETag fuerte (rangos, If-Match). Débil, If-None-Match lo sigue
+                // comparando con el de la versión y responde 304
+                response.setHeader(HttpHeaders.ETAG, "W/" + entry.etag());
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                body = entry.gzip();
+            }
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return true;
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long weightedSize() {
+        cache.cleanUp();
+        return cache.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+
+    // Libera la memoria en cuanto se confirma el cambio; el ETag ya impide servir la versión anterior
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(ProductInventoryChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            invalidateAll();
+        }
+    }
+
+    private Entry encode(VersionedProduct loaded) {
+        try {
+            byte[] json = writer.writeValueAsBytes(loaded.product());
+            byte[] gzip = gzipEnabled && json.length >= gzipMinSize ? gzip(json) : null;
+            return new Entry(loaded.version().etag(), loaded.version().lastModifiedMillis(), json, gzip);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static int weigh(Entry entry) {
+        return ENTRY_OVERHEAD_BYTES + entry.json().length + (entry.gzip() == null ? 0 : entry.gzip().length);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    // Sin Accept, o con uno que admite JSON y no pide CBOR ni Smile (esos siguen el camino de siempre)
+    static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+        boolean json = false;
+        for (MediaType mediaType : mediaTypes) {
+            String subtype = mediaType.getSubtype();
+            if (subtype.equals("cbor") || subtype.equals("x-jackson-smile")) {
+                return false;
+            }
+            json |= mediaType.includes(MediaType.APPLICATION_JSON);
+        }
+        return json;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
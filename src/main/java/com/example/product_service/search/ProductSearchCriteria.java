@@ -0,0 +1,8 @@
+package com.example.product_service.search;
+
+import java.math.BigDecimal;
+
+// Filtros opcionales (null = sin filtro) y paginación de una búsqueda
+public record ProductSearchCriteria(String text, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+        Boolean inStock, int page, int size) {
+}
@@ -0,0 +1,277 @@
+package com.example.product_service.search;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductSearchResultDto;
+import com.example.product_service.exception.InvalidPageRequestException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria del catálogo: se construye al arrancar y se mantiene con eventos de cambio
+@Component
+public class ProductSearchIndex {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final String IN_STOCK = "inStock";
+    public static final String OUT_OF_STOCK = "outOfStock";
+
+    private static final BigDecimal[] PRICE_BOUNDS = {
+            BigDecimal.valueOf(10), BigDecimal.valueOf(50), BigDecimal.valueOf(100), BigDecimal.valueOf(500) };
+    private static final String[] PRICE_BUCKETS = { "0-10", "10-50", "50-100", "100-500", "500+" };
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    // Los DTO guardados nunca se modifican: las actualizaciones reemplazan la copia completa
+    private record IndexedProduct(ProductDto product, Set<String> nameTokens, Set<String> tokens) {
+    }
+
+    public void index(ProductDto product) {
+        IndexedProduct indexed = toIndexed(copyOf(product));
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(product.getId());
+            products.put(product.getId(), indexed);
+            for (String token : indexed.tokens()) {
+                postings.computeIfAbsent(token, key -> new HashSet<>()).add(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Al eliminar una categoría sus productos se eliminan en cascada
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> productIds = products.values().stream()
+                    .map(IndexedProduct::product)
+                    .filter(product -> categoryId.equals(product.getCategoryId()))
+                    .map(ProductDto::getId)
+                    .toList();
+            productIds.forEach(this::removeUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Precio y stock no forman parte del texto indexado, por lo que no se tocan los postings
+    public void updateInventory(Long productId, BigDecimal price, Integer stock) {
+        lock.writeLock().lock();
+        try {
+            IndexedProduct current = products.get(productId);
+            if (current == null) {
+                return;
+            }
+            ProductDto updated = copyOf(current.product());
+            if (price != null) {
+                updated.setPrice(price);
+            }
+            if (stock != null) {
+                updated.setStock(stock);
+            }
+            products.put(productId, new IndexedProduct(updated, current.nameTokens(), current.tokens()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ProductSearchResultDto search(ProductSearchCriteria criteria) {
+        if (criteria.page() < 0) {
+            throw new InvalidPageRequestException("Page must be zero or greater");
+        }
+        if (criteria.size() < 1) {
+            throw new InvalidPageRequestException("Page size must be greater than zero");
+        }
+        int pageSize = Math.min(criteria.size(), MAX_PAGE_SIZE);
+        Set<String> queryTokens = tokenize(criteria.text());
+
+        Map<Long, Long> categoryFacets = new TreeMap<>();
+        Map<String, Long> priceFacets = new LinkedHashMap<>();
+        Arrays.stream(PRICE_BUCKETS).forEach(bucket -> priceFacets.put(bucket, 0L));
+        Map<String, Long> stockFacets = new LinkedHashMap<>();
+        stockFacets.put(IN_STOCK, 0L);
+        stockFacets.put(OUT_OF_STOCK, 0L);
+        List<IndexedProduct> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(queryTokens)) {
+                IndexedProduct indexed = products.get(id);
+                ProductDto product = indexed.product();
+                boolean categoryMatches = criteria.categoryId() == null
+                        || criteria.categoryId().equals(product.getCategoryId());
+                boolean priceMatches = priceMatches(product.getPrice(), criteria);
+                boolean stockMatches = criteria.inStock() == null || criteria.inStock() == inStock(product);
+
+                // Facetas disyuntivas: cada faceta ignora su propio filtro para mostrar las alternativas
+                if (priceMatches && stockMatches) {
+                    categoryFacets.merge(product.getCategoryId(), 1L, Long::sum);
+                }
+                if (categoryMatches && stockMatches) {
+                    priceFacets.merge(priceBucket(product.getPrice()), 1L, Long::sum);
+                }
+                if (categoryMatches && priceMatches) {
+                    stockFacets.merge(inStock(product) ? IN_STOCK : OUT_OF_STOCK, 1L, Long::sum);
+                }
+                if (categoryMatches && priceMatches && stockMatches) {
+                    matches.add(indexed);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Primero los productos cuyo nombre contiene más términos buscados, luego por ID
+        matches.sort(Comparator.comparingInt((IndexedProduct indexed) -> -nameScore(indexed, queryTokens))
+                .thenComparing(indexed -> indexed.product().getId()));
+        long from = Math.min((long) criteria.page() * pageSize, matches.size());
+        int to = (int) Math.min(from + pageSize, matches.size());
+
+        ProductSearchResultDto result = new ProductSearchResultDto();
+        result.setItems(matches.subList((int) from, to).stream().map(IndexedProduct::product).toList());
+        result.setTotal(matches.size());
+        result.setPage(criteria.page());
+        result.setSize(pageSize);
+        result.setCategoryFacets(categoryFacets);
+        result.setPriceFacets(priceFacets);
+        result.setStockFacets(stockFacets);
+        return result;
+    }
+
+    // Intersección de postings empezando por la lista más corta (todos los términos deben aparecer)
+    private Collection<Long> candidates(Set<String> queryTokens) {
+        if (queryTokens.isEmpty()) {
+            return products.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String token : queryTokens) {
+            Set<Long> posting = postings.get(token);
+            if (posting == null) {
+                return Set.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void removeUnlocked(Long productId) {
+        IndexedProduct previous = products.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.tokens()) {
+            Set<Long> posting = postings.get(token);
+            if (posting != null && posting.remove(productId) && posting.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private static IndexedProduct toIndexed(ProductDto product) {
+        Set<String> nameTokens = tokenize(product.getName());
+        Set<String> tokens = new HashSet<>(nameTokens);
+        tokens.addAll(tokenize(product.getDescription()));
+        return new IndexedProduct(product, nameTokens, tokens);
+    }
+
+    private static int nameScore(IndexedProduct indexed, Set<String> queryTokens) {
+        int score = 0;
+        for (String token : queryTokens) {
+            if (indexed.nameTokens().contains(token)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    private static boolean priceMatches(BigDecimal price, ProductSearchCriteria criteria) {
+        return (criteria.minPrice() == null || price.compareTo(criteria.minPrice()) >= 0)
+                && (criteria.maxPrice() == null || price.compareTo(criteria.maxPrice()) <= 0);
+    }
+
+    private static boolean inStock(ProductDto product) {
+        return product.getStock() != null && product.getStock() > 0;
+    }
+
+    static String priceBucket(BigDecimal price) {
+        for (int i = 0; i < PRICE_BOUNDS.length; i++) {
+            if (price.compareTo(PRICE_BOUNDS[i]) < 0) {
+                return PRICE_BUCKETS[i];
+            }
+        }
+        return PRICE_BUCKETS[PRICE_BUCKETS.length - 1];
+    }
+
+    // Minúsculas y sin tildes para que "Máscara" y "mascara" coincidan
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static ProductDto copyOf(ProductDto source) {
+        ProductDto copy = new ProductDto();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setPrice(source.getPrice());
+        copy.setStock(source.getStock());
+        copy.setCategoryId(source.getCategoryId());
+        copy.setImageUrls(source.getImageUrls() != null ? new ArrayList<>(source.getImageUrls()) : null);
+        return copy;
+    }
+}
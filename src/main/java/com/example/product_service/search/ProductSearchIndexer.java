@@ -0,0 +1,67 @@
+package com.example.product_service.search;
+
+import com.example.product_service.event.CategoryChangedEvent;
+import com.example.product_service.event.ChangeType;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.example.product_service.event.RebuildBuffer;
+import com.example.product_service.service.ProductExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Mantiene el índice de búsqueda al día: carga completa al arrancar y cambios incrementales tras cada commit
+@Component
+public class ProductSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexer.class);
+
+    private final ProductSearchIndex searchIndex;
+    private final ProductExportService productExportService;
+    private final RebuildBuffer rebuildBuffer = new RebuildBuffer();
+
+    public ProductSearchIndexer(ProductSearchIndex searchIndex, ProductExportService productExportService) {
+        this.searchIndex = searchIndex;
+        this.productExportService = productExportService;
+    }
+
+    // Ya puede haber tráfico: los cambios confirmados durante la carga se reaplican al terminar
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        AtomicLong count = new AtomicLong();
+        rebuildBuffer.rebuild(() -> count.set(productExportService.forEachProduct(searchIndex::index)));
+        logger.info("Search index built with {} products in {} ms", count.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Solo se aplican cambios confirmados; un rollback no deja rastro en el índice
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        rebuildBuffer.apply(() -> {
+            if (event.type() == ChangeType.DELETED) {
+                searchIndex.remove(event.productId());
+            } else {
+                searchIndex.index(event.product());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(ProductInventoryChangedEvent event) {
+        rebuildBuffer.apply(() -> searchIndex.updateInventory(event.productId(), event.price(), event.stock()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            rebuildBuffer.apply(() -> searchIndex.removeCategory(event.categoryId()));
+        }
+    }
+}
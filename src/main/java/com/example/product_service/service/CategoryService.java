@@ -1,61 +1,126 @@
 package com.example.product_service.service;
 
+import com.example.product_service.config.CacheConfig;
+import com.example.product_service.config.MetricsConfig;
 import com.example.product_service.dto.CategoryDto;
+import com.example.product_service.dto.CategoryStatsDto;
+import com.example.product_service.dto.CollectionVersion;
+import com.example.product_service.dto.EntityVersion;
+import com.example.product_service.dto.VersionedCategories;
+import com.example.product_service.event.CategoryChangedEvent;
 import com.example.product_service.exception.CategoryNotFoundException;
 import com.example.product_service.model.Category;
 import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor para inyección de dependencias
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories() {
-        return categoryRepository.findAll()
-                .stream()
+        return getVersionedCategories().categories();
+    }
+
+    // El validador sale de las mismas filas del listado: sin una segunda consulta sobre toda la tabla
+    @Transactional(readOnly = true)
+    public VersionedCategories getVersionedCategories() {
+        List<Category> categories = categoryRepository.findAll();
+        List<EntityVersion> versions = categories.stream()
+                .map(category -> new EntityVersion(category.getId(),
+                        category.getUpdatedAt() != null ? category.getUpdatedAt() : category.getCreatedAt()))
+                .toList();
+        List<CategoryDto> categoryDtos = categories.stream()
                 .map(CategoryDto::fromEntity)
                 .collect(Collectors.toList());
+        return new VersionedCategories(CollectionVersion.of(versions, null), categoryDtos);
+    }
+
+    // Agregado en la base de datos: no se cargan productos ni categorías en memoria
+    @Transactional(readOnly = true)
+    public List<CategoryStatsDto> getCategoryStats() {
+        return categoryRepository.findCategoryStats();
+    }
+
+    // Validadores para GET condicional: una consulta de columnas, sin cargar la categoría
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> findCategoryVersion(Long id) {
+        return categoryRepository.findVersionById(id);
     }
 
+    // Sin readOnly a propósito: lee del primario, porque el resultado queda en caché
+    // y no debe venir de una réplica atrasada
+    @Cacheable(value = CacheConfig.CATEGORIES, key = "#id")
+    @Transactional
     public CategoryDto getCategoryById(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Category with ID " + id + " not found"));
         return CategoryDto.fromEntity(category);
     }
 
+    @Transactional
     public CategoryDto createCategory(CategoryDto categoryDto) {
         if (categoryRepository.existsByName(categoryDto.getName())) {
             throw new RuntimeException("Category with name '" + categoryDto.getName() + "' already exists");
         }
         Category category = categoryDto.toEntity();
         Category savedCategory = categoryRepository.save(category);
-        return CategoryDto.fromEntity(savedCategory);
+        CategoryDto createdCategory = CategoryDto.fromEntity(savedCategory);
+        eventPublisher.publishEvent(CategoryChangedEvent.created(createdCategory));
+        return createdCategory;
     }
 
+    @CacheEvict(value = CacheConfig.CATEGORIES, key = "#id")
+    @Transactional
     public CategoryDto updateCategory(Long id, CategoryDto categoryDto) {
-        Category existingCategory = categoryRepository.findById(id)
+        // Bloqueada hasta el commit: sin @Version, es lo que ordena dos modificaciones y sus eventos
+        Category existingCategory = categoryRepository.findLockedById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Category with ID " + id + " not found"));
 
         existingCategory.setName(categoryDto.getName());
         existingCategory.setDescription(categoryDto.getDescription());
 
         Category updatedCategory = categoryRepository.save(existingCategory);
-        return CategoryDto.fromEntity(updatedCategory);
+        CategoryDto result = CategoryDto.fromEntity(updatedCategory);
+        eventPublisher.publishEvent(CategoryChangedEvent.updated(result));
+        return result;
     }
 
+    // Borra imágenes, productos y la categoría con tres sentencias de conjunto, en lugar de la cascada
+    // de JPA que carga cada producto con sus imágenes y los elimina fila por fila
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(value = CacheConfig.PRODUCTS, allEntries = true)
+    })
+    @Transactional
     public void deleteCategory(Long id) {
-        if (!categoryRepository.existsById(id)) {
+        productRepository.deleteByCategoryId(id);
+        if (categoryRepository.deleteCategoryById(id) == 0) {
             throw new CategoryNotFoundException("Category with ID " + id + " not found");
         }
-        categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
     }
 }
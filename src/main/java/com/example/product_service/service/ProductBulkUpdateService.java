@@ -0,0 +1,75 @@
+package com.example.product_service.service;
+
+import com.example.product_service.config.CacheConfig;
+import com.example.product_service.config.MetricsConfig;
+import com.example.product_service.dto.BulkPatchResultDto;
+import com.example.product_service.dto.ProductPatchDto;
+import com.example.product_service.dto.ProductPatchResultDto;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Actualización masiva de precio y stock con UPDATEs JDBC en lotes, sin cargar entidades
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ProductBulkUpdateService {
+
+    public static final int MAX_PATCH_SIZE = 50_000;
+
+    // coalesce conserva el valor actual cuando el campo no viene; version y updated_at avanzan como en JPA
+    static final String UPDATE_SQL = "update product set price = coalesce(?, price), stock = coalesce(?, stock), "
+            + "version = coalesce(version, 0) + 1, updated_at = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public ProductBulkUpdateService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+            @Value("${product.bulk-update.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    // Una sola transacción con resultado por fila: un id inexistente se informa como NOT_FOUND y no impide
+    // actualizar los demás. Solo las filas UPDATED publican evento: en UNKNOWN el driver no informó el conteo
+    @CacheEvict(value = CacheConfig.PRODUCTS, allEntries = true)
+    @Transactional
+    public BulkPatchResultDto patchProducts(List<ProductPatchDto> patches) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_SQL, patches, chunkSize, (statement, patch) -> {
+            statement.setObject(1, patch.getPrice(), Types.NUMERIC);
+            statement.setObject(2, patch.getStock(), Types.INTEGER);
+            statement.setTimestamp(3, now);
+            statement.setLong(4, patch.getId());
+        });
+
+        List<ProductPatchResultDto> results = new ArrayList<>(patches.size());
+        int row = 0;
+        for (int[] chunk : updateCounts) {
+            for (int count : chunk) {
+                ProductPatchDto patch = patches.get(row++);
+                ProductPatchResultDto.Status status = count > 0 ? ProductPatchResultDto.Status.UPDATED
+                        : count == 0 ? ProductPatchResultDto.Status.NOT_FOUND
+                        : ProductPatchResultDto.Status.UNKNOWN;
+                results.add(new ProductPatchResultDto(patch.getId(), status));
+                if (status == ProductPatchResultDto.Status.UPDATED) {
+                    eventPublisher.publishEvent(
+                            new ProductInventoryChangedEvent(patch.getId(), patch.getPrice(), patch.getStock()));
+                }
+            }
+        }
+        return new BulkPatchResultDto(results);
+    }
+}
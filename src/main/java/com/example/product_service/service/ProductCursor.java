@@ -0,0 +1,80 @@
+package com.example.product_service.service;
+
+import com.example.product_service.exception.InvalidPageRequestException;
+import com.example.product_service.model.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Token opaco con la posición del último producto entregado: "<sort>|<valor>|<id>" en Base64 URL
+final class ProductCursor {
+
+    private final ProductSort sort;
+    private final String value;
+    private final Long id;
+
+    private ProductCursor(ProductSort sort, String value, Long id) {
+        this.sort = sort;
+        this.value = value;
+        this.id = id;
+    }
+
+    static ProductCursor after(ProductSort sort, Product product) {
+        String value;
+        switch (sort) {
+            case CREATED_AT:
+                value = product.getCreatedAt().toString();
+                break;
+            case PRICE:
+                value = product.getPrice().toPlainString();
+                break;
+            default:
+                value = "";
+        }
+        return new ProductCursor(sort, value, product.getId());
+    }
+
+    static ProductCursor decode(String token, ProductSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || ProductSort.valueOf(parts[0]) != expectedSort) {
+                throw new InvalidPageRequestException("Cursor does not match the requested sort");
+            }
+            ProductCursor cursor = new ProductCursor(expectedSort, parts[1], Long.valueOf(parts[2]));
+            // Validar el valor de ordenamiento antes de usarlo en la consulta
+            if (expectedSort == ProductSort.CREATED_AT) {
+                cursor.createdAt();
+            } else if (expectedSort == ProductSort.PRICE) {
+                cursor.price();
+            }
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sort.name() + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ProductSort sort() {
+        return sort;
+    }
+
+    Long id() {
+        return id;
+    }
+
+    LocalDateTime createdAt() {
+        return LocalDateTime.parse(value);
+    }
+
+    BigDecimal price() {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.product_service.service;
+
+import com.example.product_service.config.MetricsConfig;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter productWriter;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, EntityManager entityManager,
+            ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(ProductDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Escribe el catálogo como NDJSON (un producto por línea) sin acumular entidades ni DTOs en memoria
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            long count;
+            try {
+                count = forEachProduct(product -> writeLine(generator, product));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            generator.flush();
+            return count;
+        }
+    }
+
+    // Recorre todo el catálogo con memoria constante: cada entidad se libera tras entregar su DTO
+    @Transactional(readOnly = true)
+    public long forEachProduct(Consumer<ProductDto> consumer) {
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllOrderedById()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                consumer.accept(ProductDto.fromEntity(product));
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void writeLine(JsonGenerator generator, ProductDto product) {
+        try {
+            productWriter.writeValue(generator, product);
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
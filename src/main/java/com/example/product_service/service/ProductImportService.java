@@ -0,0 +1,272 @@
+package com.example.product_service.service;
+
+import com.example.product_service.config.MetricsConfig;
+import com.example.product_service.dto.ImportJobDto;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.exception.ImportJobNotFoundException;
+import com.example.product_service.exception.ImportJobStateException;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.model.ProductImportJob;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductImportJobRepository;
+import com.example.product_service.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Importación de catálogos CSV: lectura en streaming, bloques confirmados con su punto de control
+// y reanudación desde la última fila confirmada
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    // imageUrls admite varias URLs separadas por '|'
+    static final List<String> COLUMNS = List.of("name", "description", "price", "stock", "categoryId", "imageUrls");
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ProductImportJobRepository jobRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
+    private final Path importDirectory;
+    private final int chunkSize;
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public ProductImportService(ProductImportJobRepository jobRepository, ProductRepository productRepository,
+            CategoryRepository categoryRepository, Validator validator,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+            TaskExecutor taskExecutor,
+            @Value("${product.import.directory:${java.io.tmpdir}/product-imports}") String importDirectory,
+            @Value("${product.import.chunk-size:1000}") int chunkSize) {
+        this.jobRepository = jobRepository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.importDirectory = Path.of(importDirectory);
+        this.chunkSize = chunkSize;
+    }
+
+    // El archivo se copia a disco en streaming y se procesa en segundo plano
+    public ImportJobDto startImport(String fileName, InputStream content) throws IOException {
+        Files.createDirectories(importDirectory);
+        Path file = Files.createTempFile(importDirectory, "import-", ".csv");
+        Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+
+        ProductImportJob job = new ProductImportJob();
+        job.setFileName(fileName);
+        job.setFilePath(file.toString());
+        job = jobRepository.save(job);
+        submit(job.getId());
+        return getImport(job.getId());
+    }
+
+    // Un trabajo fallido (o interrumpido por un reinicio) continúa tras la última fila confirmada
+    public ImportJobDto resumeImport(Long id) {
+        ProductImportJob job = findJob(id);
+        if (job.getStatus() == ProductImportJob.Status.COMPLETED) {
+            throw new ImportJobStateException("Import job with ID " + id + " is already completed");
+        }
+        submit(id);
+        return getImport(id);
+    }
+
+    public ImportJobDto getImport(Long id) {
+        return ImportJobDto.fromEntity(findJob(id));
+    }
+
+    private void submit(Long jobId) {
+        if (!runningJobs.add(jobId)) {
+            throw new ImportJobStateException("Import job with ID " + jobId + " is already running");
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    runningJobs.remove(jobId);
+                }
+            });
+        } catch (RuntimeException ex) {
+            runningJobs.remove(jobId);
+            throw ex;
+        }
+    }
+
+    private void run(Long jobId) {
+        ProductImportJob job = transactionTemplate.execute(status -> {
+            ProductImportJob current = findJob(jobId);
+            current.setStatus(ProductImportJob.Status.RUNNING);
+            current.setRunStartedAt(LocalDateTime.now());
+            current.setRunStartRows(current.getProcessedRows());
+            current.setFinishedAt(null);
+            current.setLastError(null);
+            return current;
+        });
+        // Mapa de categorías preparado una vez: cada fila se resuelve sin consultar la base de datos
+        Map<Long, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        try (Reader reader = Files.newBufferedReader(Path.of(job.getFilePath()), StandardCharsets.UTF_8);
+                CSVParser parser = FORMAT.parse(reader)) {
+            if (!parser.getHeaderNames().containsAll(COLUMNS)) {
+                throw new IllegalArgumentException("CSV header must contain the columns " + COLUMNS);
+            }
+            long processed = job.getProcessedRows();
+            long imported = job.getImportedRows();
+            long rejected = job.getRejectedRows();
+            long row = 0;
+            int pendingRows = 0;
+            List<Product> products = new ArrayList<>(chunkSize);
+
+            for (CSVRecord record : parser) {
+                // Filas confirmadas en una ejecución anterior
+                if (++row <= processed) {
+                    continue;
+                }
+                Product product = toProduct(jobId, record, categories);
+                if (product != null) {
+                    products.add(product);
+                } else {
+                    rejected++;
+                }
+                if (++pendingRows == chunkSize) {
+                    imported += products.size();
+                    processed = row;
+                    commitChunk(jobId, products, processed, imported, rejected);
+                    products = new ArrayList<>(chunkSize);
+                    pendingRows = 0;
+                }
+            }
+            commitChunk(jobId, products, row, imported + products.size(), rejected);
+            finish(jobId, ProductImportJob.Status.COMPLETED, null);
+            Files.deleteIfExists(Path.of(job.getFilePath()));
+        } catch (Exception ex) {
+            logger.error("Import job {} failed", jobId, ex);
+            finish(jobId, ProductImportJob.Status.FAILED, ex.getMessage());
+        }
+    }
+
+    // Los productos del bloque y el punto de control se confirman juntos: reanudar nunca duplica filas
+    private void commitChunk(Long jobId, List<Product> products, long processed, long imported, long rejected) {
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.saveAll(products);
+            ProductImportJob job = findJob(jobId);
+            job.setProcessedRows(processed);
+            job.setImportedRows(imported);
+            job.setRejectedRows(rejected);
+            products.forEach(product -> eventPublisher.publishEvent(
+                    ProductChangedEvent.created(ProductDto.fromEntity(product))));
+        });
+    }
+
+    private void finish(Long jobId, ProductImportJob.Status status, String error) {
+        transactionTemplate.executeWithoutResult(transaction -> {
+            ProductImportJob job = findJob(jobId);
+            job.setStatus(status);
+            job.setFinishedAt(LocalDateTime.now());
+            if (error != null) {
+                job.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            }
+        });
+        ProductImportJob job = findJob(jobId);
+        logger.info("Import job {} {}: {} rows processed, {} imported, {} rejected, {} rows/s", jobId, status,
+                job.getProcessedRows(), job.getImportedRows(), job.getRejectedRows(),
+                Math.round(ImportJobDto.fromEntity(job).getRowsPerSecond()));
+    }
+
+    // Valida con las mismas restricciones que ProductDto; devuelve null si la fila se rechaza
+    private Product toProduct(Long jobId, CSVRecord record, Map<Long, Category> categories) {
+        if (!record.isConsistent()) {
+            return reject(jobId, record, "expected " + COLUMNS.size() + " columns");
+        }
+        ProductDto productDto = new ProductDto();
+        try {
+            productDto.setName(emptyToNull(record.get("name")));
+            productDto.setDescription(emptyToNull(record.get("description")));
+            productDto.setPrice(record.get("price").isEmpty() ? null : new BigDecimal(record.get("price")));
+            productDto.setStock(record.get("stock").isEmpty() ? null : Integer.valueOf(record.get("stock")));
+            productDto.setCategoryId(record.get("categoryId").isEmpty() ? null : Long.valueOf(record.get("categoryId")));
+        } catch (NumberFormatException ex) {
+            return reject(jobId, record, "invalid number");
+        }
+        productDto.setImageUrls(Arrays.stream(record.get("imageUrls").split("\\|"))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList());
+
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(productDto);
+        if (!violations.isEmpty()) {
+            return reject(jobId, record, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        Category category = categories.get(productDto.getCategoryId());
+        if (category == null) {
+            return reject(jobId, record, "Category with ID " + productDto.getCategoryId() + " not found");
+        }
+        Product product = productDto.toEntity();
+        product.setImageUrls(new ArrayList<>(productDto.getImageUrls()));
+        product.setCategory(category);
+        return product;
+    }
+
+    private Product reject(Long jobId, CSVRecord record, String reason) {
+        logger.warn("Import job {}: row {} rejected: {}", jobId, record.getRecordNumber(), reason);
+        return null;
+    }
+
+    private ProductImportJob findJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job with ID " + id + " not found"));
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -1,40 +1,219 @@
 package com.example.product_service.service;
 
+import com.example.product_service.config.CacheConfig;
+import com.example.product_service.config.MetricsConfig;
+import com.example.product_service.dto.CollectionVersion;
+import com.example.product_service.dto.EntityVersion;
 import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductLookupDto;
+import com.example.product_service.dto.ProductPageDto;
+import com.example.product_service.dto.StockDto;
+import com.example.product_service.dto.VersionedProduct;
+import com.example.product_service.dto.VersionedProductPage;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.example.product_service.exception.CategoryNotFoundException;
+import com.example.product_service.exception.InsufficientStockException;
+import com.example.product_service.exception.InvalidPageRequestException;
 import com.example.product_service.exception.ProductNotFoundException;
 import com.example.product_service.model.Category;
 import com.example.product_service.model.Product;
 import com.example.product_service.repository.CategoryRepository;
 import com.example.product_service.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int MAX_LOOKUP_SIZE = 500;
+    // Ids por consulta IN en la búsqueda por lote; con in_clause_parameter_padding los planes se reutilizan
+    static final int LOOKUP_CHUNK_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache productCache;
+    private final SingleFlight<Long, Optional<VersionedProduct>> productLoads;
 
     // Constructor para inyección de dependencias
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+            ApplicationEventPublisher eventPublisher, Optional<CacheManager> cacheManager,
+            @Value("${product.cache.load-timeout-ms:5000}") long loadTimeoutMillis) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        // Sin CacheManager (pruebas de repositorio, benchmarks) cada lectura va a la base
+        this.productCache = cacheManager.map(manager -> manager.getCache(CacheConfig.PRODUCTS))
+                .orElseGet(() -> new NoOpCache(CacheConfig.PRODUCTS));
+        this.productLoads = new SingleFlight<>(Duration.ofMillis(loadTimeoutMillis));
+    }
+
+    @Transactional(readOnly = true)
+    public ProductPageDto getProductPage(String cursor, int size, String sort) {
+        return getVersionedProductPage(cursor, size, sort).page();
     }
 
-    public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream()
+    // El validador sale de las filas de la página: sin count(*) ni max() sobre todo el catálogo
+    @Transactional(readOnly = true)
+    public VersionedProductPage getVersionedProductPage(String cursor, int size, String sort) {
+        if (size < 1) {
+            throw new InvalidPageRequestException("Page size must be at least 1");
+        }
+        ProductSort productSort = ProductSort.fromParameter(sort);
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Product> products = cursor == null || cursor.isBlank()
+                ? findFirstPage(productSort, limit)
+                : findPageAfter(ProductCursor.decode(cursor, productSort), limit);
+
+        String nextCursor = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            nextCursor = ProductCursor.after(productSort, products.get(pageSize - 1)).encode();
+        }
+        List<ProductDto> items = products.stream()
                 .map(ProductDto::fromEntity)
                 .collect(Collectors.toList());
+        List<EntityVersion> versions = products.stream()
+                .map(ProductService::versionOf)
+                .toList();
+        return new VersionedProductPage(CollectionVersion.of(versions, nextCursor),
+                new ProductPageDto(items, nextCursor));
+    }
+
+    private List<Product> findFirstPage(ProductSort sort, Pageable limit) {
+        switch (sort) {
+            case CREATED_AT:
+                return productRepository.findFirstPageByCreatedAt(limit);
+            case PRICE:
+                return productRepository.findFirstPageByPrice(limit);
+            default:
+                return productRepository.findAllByOrderByIdAsc(limit);
+        }
+    }
+
+    private List<Product> findPageAfter(ProductCursor cursor, Pageable limit) {
+        switch (cursor.sort()) {
+            case CREATED_AT:
+                return productRepository.findPageAfterCreatedAt(cursor.createdAt(), cursor.id(), limit);
+            case PRICE:
+                return productRepository.findPageAfterPrice(cursor.price(), cursor.id(), limit);
+            default:
+                return productRepository.findByIdGreaterThanOrderByIdAsc(cursor.id(), limit);
+        }
     }
 
+    // Validadores para GET condicional: una consulta de columnas, sin cargar el producto
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> findProductVersion(Long id) {
+        return productRepository.findVersionById(id);
+    }
+
+    // Fallos de caché concurrentes para el mismo id comparten una sola consulta. La carga guarda el resultado
+    // en caché antes de liberar la clave; con @Cacheable se guardaba después y una llamada que llegara en ese
+    // hueco empezaba otra consulta. Sin @Transactional: quien espera no debe retener una conexión del pool,
+    // y la consulta (fuera de una transacción readOnly) va al primario, porque el resultado queda en caché y
+    // no debe venir de una réplica atrasada
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        // Cada llamada lanza su propia excepción; la carga compartida solo informa que no existe
+        return findVersionedProduct(id).map(VersionedProduct::product)
                 .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
-        return ProductDto.fromEntity(product);
     }
 
+    // Producto y validadores de una misma lectura, por la caché de productos y la carga compartida: la caché
+    // de respuestas guarda los bytes bajo este ETag, así que ambos se guardan juntos y no pueden desfasarse
+    public Optional<VersionedProduct> findVersionedProduct(Long id) {
+        VersionedProduct cached = productCache.get(id, VersionedProduct.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return productLoads.execute(id, () -> loadProduct(id));
+    }
+
+    private Optional<VersionedProduct> loadProduct(Long id) {
+        // Una carga que terminó justo antes de tomar la clave ya dejó el producto en caché
+        VersionedProduct cached = productCache.get(id, VersionedProduct.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<VersionedProduct> product = productRepository.findWithImagesById(id)
+                .map(entity -> new VersionedProduct(versionOf(entity), ProductDto.fromEntity(entity)));
+        product.ifPresent(loaded -> productCache.put(id, loaded));
+        return product;
+    }
+
+    // Los mismos validadores que lee findVersionById, tomados de la entidad ya cargada
+    private static EntityVersion versionOf(Product product) {
+        return new EntityVersion(product.getId(),
+                product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt(),
+                product.getVersion());
+    }
+
+    // Búsqueda por lote para carrito y pedidos: consultas IN por tramos, sin N+1 de imágenes ni categorías
+    // (de la categoría solo se lee el id del proxy). Los ids inexistentes se informan, no lanzan excepción
+    @Transactional(readOnly = true)
+    public ProductLookupDto getProductsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new InvalidPageRequestException("At least one product id is required");
+        }
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (requested.contains(null)) {
+            throw new InvalidPageRequestException("Product ids cannot be empty");
+        }
+        if (requested.size() > MAX_LOOKUP_SIZE) {
+            throw new InvalidPageRequestException("At most " + MAX_LOOKUP_SIZE + " product ids per request");
+        }
+
+        Map<Long, ProductDto> found = new HashMap<>();
+        for (int from = 0; from < requested.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = requested.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, requested.size()));
+            for (Product product : productRepository.findWithImagesByIdIn(chunk)) {
+                found.put(product.getId(), ProductDto.fromEntity(product));
+            }
+        }
+
+        List<ProductDto> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductDto product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ProductLookupDto(products, missingIds);
+    }
+
+    @Transactional
     public ProductDto createProduct(ProductDto productDto) {
         // Validar que la categoría exista
         Category category = categoryRepository.findById(productDto.getCategoryId())
@@ -42,17 +221,52 @@ public class ProductService {
 
         // Crear la entidad del producto desde el DTO
         Product product = productDto.toEntity();
+        // El id lo asigna la secuencia: con @Version, un id enviado por el cliente haría que save() fusione
+        // (y sobrescriba) otra fila en vez de insertar
+        product.setId(null);
         product.setCategory(category);
         product.setImageUrls(productDto.getImageUrls()); // Guardar las URLs de las imágenes
 
         // Guardar el producto y convertirlo de nuevo a DTO
         Product savedProduct = productRepository.save(product);
-        return ProductDto.fromEntity(savedProduct);
+        ProductDto createdProduct = ProductDto.fromEntity(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(createdProduct));
+        return createdProduct;
+    }
+
+    // Alta masiva: categorías resueltas en una sola consulta y productos/imágenes insertados en lotes JDBC
+    @Transactional
+    public List<ProductDto> createProducts(List<ProductDto> productDtos) {
+        Set<Long> categoryIds = productDtos.stream()
+                .map(ProductDto::getCategoryId)
+                .collect(Collectors.toSet());
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<Product> products = new ArrayList<>(productDtos.size());
+        for (ProductDto productDto : productDtos) {
+            Category category = categories.get(productDto.getCategoryId());
+            if (category == null) {
+                throw new CategoryNotFoundException("Category with ID " + productDto.getCategoryId() + " not found");
+            }
+            Product product = productDto.toEntity();
+            product.setId(null);
+            product.setCategory(category);
+            products.add(product);
+        }
+
+        List<ProductDto> createdProducts = productRepository.saveAll(products).stream()
+                .map(ProductDto::fromEntity)
+                .collect(Collectors.toList());
+        createdProducts.forEach(created -> eventPublisher.publishEvent(ProductChangedEvent.created(created)));
+        return createdProducts;
     }
 
+    @CacheEvict(value = CacheConfig.PRODUCTS, key = "#id")
+    @Transactional
     public ProductDto updateProduct(Long id, ProductDto productDto) {
-        // Validar que el producto exista
-        Product existingProduct = productRepository.findById(id)
+        // Validar que el producto exista; queda bloqueado hasta el commit para que el evento siga ese orden
+        Product existingProduct = productRepository.findLockedById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
 
         // Actualizar los campos del producto
@@ -60,7 +274,7 @@ public class ProductService {
         existingProduct.setDescription(productDto.getDescription());
         existingProduct.setPrice(productDto.getPrice());
         existingProduct.setStock(productDto.getStock());
-        existingProduct.setImageUrls(productDto.getImageUrls()); // Actualizar las URLs de las imágenes
+        existingProduct.updateImageUrls(productDto.getImageUrls()); // Solo se escriben las URLs que cambian
 
         // Validar que la categoría exista
         Category category = categoryRepository.findById(productDto.getCategoryId())
@@ -69,15 +283,51 @@ public class ProductService {
 
         // Guardar el producto actualizado y convertirlo a DTO
         Product updatedProduct = productRepository.save(existingProduct);
-        return ProductDto.fromEntity(updatedProduct);
+        ProductDto result = ProductDto.fromEntity(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(result));
+        return result;
     }
 
+    @CacheEvict(value = CacheConfig.PRODUCTS, key = "#id")
+    @Transactional
     public void deleteProduct(Long id) {
-        // Validar que el producto exista
-        if (!productRepository.existsById(id)) {
+        // Validar que el producto exista; el DELETE se ejecuta al confirmar, así que se bloquea ya
+        Product product = productRepository.findLockedById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
+        // Eliminar el producto
+        productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    @CacheEvict(value = CacheConfig.PRODUCTS, key = "#id")
+    @Transactional
+    public StockDto reserveStock(Long id, int quantity) {
+        if (productRepository.reserveStock(id, quantity, LocalDateTime.now()) == 0) {
+            // Distinguir producto inexistente de stock insuficiente
+            Integer available = findStock(id);
+            throw new InsufficientStockException("Insufficient stock for product with ID " + id
+                    + ": requested " + quantity + ", available " + available);
+        }
+        return stockChanged(id);
+    }
+
+    @CacheEvict(value = CacheConfig.PRODUCTS, key = "#id")
+    @Transactional
+    public StockDto releaseStock(Long id, int quantity) {
+        if (productRepository.releaseStock(id, quantity, LocalDateTime.now()) == 0) {
             throw new ProductNotFoundException("Product with ID " + id + " not found");
         }
-        // Eliminar el producto
-        productRepository.deleteById(id);
+        return stockChanged(id);
+    }
+
+    private StockDto stockChanged(Long id) {
+        Integer stock = findStock(id);
+        eventPublisher.publishEvent(ProductInventoryChangedEvent.stock(id, stock));
+        return new StockDto(id, stock);
+    }
+
+    private Integer findStock(Long id) {
+        return productRepository.findStockById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product with ID " + id + " not found"));
     }
 }
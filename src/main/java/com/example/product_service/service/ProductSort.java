@@ -0,0 +1,23 @@
+package com.example.product_service.service;
+
+import com.example.product_service.exception.InvalidPageRequestException;
+
+// Columnas soportadas para la paginación por keyset; el id siempre actúa como desempate
+public enum ProductSort {
+    ID,
+    CREATED_AT,
+    PRICE;
+
+    public static ProductSort fromParameter(String value) {
+        switch (value == null ? "" : value) {
+            case "id":
+                return ID;
+            case "createdAt":
+                return CREATED_AT;
+            case "price":
+                return PRICE;
+            default:
+                throw new InvalidPageRequestException("Unsupported sort '" + value + "', expected id, createdAt or price");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.product_service.service;
+
+import com.example.product_service.exception.LoadFailedException;
+import com.example.product_service.exception.LoadTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Una sola carga en curso por clave: la primera llamada ejecuta el loader en su propio hilo y las que
+// llegan mientras tanto esperan su resultado o su excepción, como mucho el tiempo configurado.
+// No guarda nada al terminar: si el resultado se cachea, el loader debe guardarlo antes de devolverlo,
+// o una llamada que llegue entre el fin de la carga y el guardado empezará otra.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public SingleFlight(Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(key, existing);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> call) {
+        try {
+            return call.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // Una excepción nueva por hilo, con su propia traza, que envuelve la de la carga: la misma instancia
+            // compartida entre hilos mezclaría trazas y suppressed
+            throw new LoadFailedException("Load of " + key + " failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new LoadTimeoutException("Timed out after " + timeoutMillis + " ms waiting for load of " + key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LoadTimeoutException("Interrupted while waiting for load of " + key);
+        }
+    }
+}
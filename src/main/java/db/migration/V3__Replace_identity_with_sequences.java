@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Product y Category pasan de IDENTITY a secuencias pooled (allocationSize 50) para poder insertar en lotes.
+// Cada secuencia empieza en max(id) + 50: el optimizador pooled toma el primer valor como techo de su bloque
+// (valor - 49 .. valor), así que el primer id asignado es max(id) + 1. En Java porque START WITH debe ser literal
+public class V3__Replace_identity_with_sequences extends BaseJavaMigration {
+
+    // Igual que allocationSize en Product y Category
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean oracle = connection.getMetaData().getDatabaseProductName().startsWith("Oracle");
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("category", "product")) {
+                long maxId;
+                try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+                statement.execute("create sequence " + table + "_seq start with " + (maxId + ALLOCATION_SIZE)
+                        + " increment by " + ALLOCATION_SIZE);
+                // Las columnas GENERATED ALWAYS rechazan los ids que asigna Hibernate
+                statement.execute(oracle
+                        ? "alter table " + table + " modify id drop identity"
+                        : "alter table " + table + " alter column id drop identity");
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// product_images pasa de bolsa sin orden ni clave a lista indexada. Las filas existentes se numeran por producto
+// en orden físico (rowid), que es el orden en que se insertaron y se mostraban; después la columna pasa a
+// obligatoria y (product_id, image_order) a clave primaria. En Java porque la pseudo-columna de fila y el
+// ALTER ... NOT NULL cambian entre Oracle y H2
+public class V8__Add_product_image_order extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean oracle = connection.getMetaData().getDatabaseProductName().startsWith("Oracle");
+        String rowId = oracle ? "rowid" : "_rowid_";
+        String intType = context.getConfiguration().getPlaceholders().get("type_int");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table product_images add image_order " + intType);
+            statement.execute("merge into product_images t using (select " + rowId + " rid, row_number() over "
+                    + "(partition by product_id order by " + rowId + ") - 1 pos from product_images) s "
+                    + "on (t." + rowId + " = s.rid) when matched then update set t.image_order = s.pos");
+            statement.execute(oracle
+                    ? "alter table product_images modify image_order not null"
+                    : "alter table product_images alter column image_order set not null");
+            statement.execute("alter table product_images add constraint pk_product_images "
+                    + "primary key (product_id, image_order)");
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Orden de los eventos dentro de su agregado, asignado con la fila del agregado bloqueada: el relay lo respeta
+-- al dar offsets, porque el id viene de bloques de la secuencia y no sigue el orden de commit entre instancias.
+-- Las filas anteriores quedan en null y se publican sin esperar a otras
+alter table change_event add aggregate_sequence ${type_bigint};
+
+create index idx_change_event_aggregate on change_event (aggregate_id, aggregate_sequence);
@@ -0,0 +1,30 @@
+-- Esquema original del catálogo, tal como lo creaba ddl-auto=update antes de Flyway: ids IDENTITY y
+-- product_images sin orden ni clave. Las bases existentes se registran en esta versión sin ejecutarla
+-- (baseline-on-migrate) y reciben las conversiones desde V2.
+
+create table category (
+    id ${type_bigint} generated by default as identity,
+    name ${type_varchar}(255 ${varchar_unit}) not null,
+    description ${type_varchar}(500 ${varchar_unit}),
+    constraint pk_category primary key (id),
+    constraint uk_category_name unique (name)
+);
+
+create table product (
+    id ${type_bigint} generated by default as identity,
+    name ${type_varchar}(255 ${varchar_unit}) not null,
+    description ${type_varchar}(200 ${varchar_unit}),
+    price number(38,2) not null,
+    stock ${type_int} not null,
+    category_id ${type_bigint} not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    constraint pk_product primary key (id),
+    constraint fk_product_category foreign key (category_id) references category (id)
+);
+
+create table product_images (
+    product_id ${type_bigint} not null,
+    image_url ${type_varchar}(255 ${varchar_unit}),
+    constraint fk_product_images_product foreign key (product_id) references product (id)
+);
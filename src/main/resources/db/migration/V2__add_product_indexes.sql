@@ -0,0 +1,4 @@
+-- Paginación por keyset (created_at, id) y (price, id); borrado y facetas por categoría
+create index idx_product_created_at_id on product (created_at, id);
+create index idx_product_price_id on product (price, id);
+create index idx_product_category_id on product (category_id);
@@ -0,0 +1,4 @@
+-- Columna de @Version para el bloqueo optimista; las filas existentes empiezan en la versión 0
+alter table product add version ${type_bigint};
+
+update product set version = 0 where version is null;
@@ -0,0 +1,2 @@
+alter table category add created_at timestamp(6);
+alter table category add updated_at timestamp(6);
@@ -0,0 +1,18 @@
+-- Importaciones CSV reanudables; ids de uno en uno (allocationSize 1)
+create sequence product_import_job_seq start with 1 increment by 1;
+
+create table product_import_job (
+    id ${type_bigint} not null,
+    file_name ${type_varchar}(255 ${varchar_unit}) not null,
+    file_path ${type_varchar}(1000 ${varchar_unit}) not null,
+    status ${type_varchar}(20 ${varchar_unit}) not null,
+    processed_rows ${type_bigint} not null,
+    imported_rows ${type_bigint} not null,
+    rejected_rows ${type_bigint} not null,
+    run_started_at timestamp(6),
+    run_start_rows ${type_bigint} not null,
+    finished_at timestamp(6),
+    last_error ${type_varchar}(1000 ${varchar_unit}),
+    created_at timestamp(6),
+    constraint pk_product_import_job primary key (id)
+);
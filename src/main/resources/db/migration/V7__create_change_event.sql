@@ -0,0 +1,17 @@
+-- Outbox de cambios: stream_offset único (un solo relay confirma cada posición); la purga busca por published_at
+create sequence change_event_seq start with 1 increment by 50;
+
+create table change_event (
+    id ${type_bigint} not null,
+    aggregate_type ${type_varchar}(30 ${varchar_unit}) not null,
+    aggregate_id ${type_bigint} not null,
+    change_type ${type_varchar}(20 ${varchar_unit}) not null,
+    payload clob,
+    stream_offset ${type_bigint},
+    created_at timestamp(6) not null,
+    published_at timestamp(6),
+    constraint pk_change_event primary key (id),
+    constraint uk_change_event_stream_offset unique (stream_offset)
+);
+
+create index idx_change_event_published_at on change_event (published_at);
@@ -0,0 +1,7 @@
+-- Marca de pendiente: 'Y' hasta publicar y null después. Oracle no indexa las claves nulas, así que el índice
+-- solo contiene las filas pendientes y el sondeo del relay no recorre todo el outbox
+alter table change_event add pending char(1);
+
+update change_event set pending = 'Y' where stream_offset is null;
+
+create index idx_change_event_pending on change_event (pending);
@@ -0,0 +1,112 @@
+package com.example.product_service;
+
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Crea el esquema con las migraciones sobre H2 y arranca JPA con ddl-auto=validate: falla si alguna migración
+// no deja el esquema que esperan los mapeos
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+public class FlywayMigrationTest {
+
+    private static final Map<String, String> H2_TYPES = Map.of("type_bigint", "bigint", "type_int", "integer",
+            "type_varchar", "varchar", "varchar_unit", "characters");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testMigratedSchema_MatchesMappings() {
+        Category category = new Category();
+        category.setName("Category1");
+        categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Product1");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(5);
+        product.setCategory(category);
+        product.setImageUrls(new ArrayList<>(List.of("http://example.com/b.jpg", "http://example.com/a.jpg")));
+        Long id = productRepository.save(product).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Product loaded = productRepository.findById(id).orElseThrow();
+        assertEquals(List.of("http://example.com/b.jpg", "http://example.com/a.jpg"), loaded.getImageUrls());
+        assertEquals(0L, loaded.getVersion());
+        assertNotNull(loaded.getCreatedAt());
+    }
+
+    @Test
+    void testLegacyDatabase_IsConvertedInPlace() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // Base como la dejaba ddl-auto=update: ids IDENTITY, imágenes sin orden
+        Flyway.configure().dataSource(dataSource).placeholders(H2_TYPES).target("1").load().migrate();
+        jdbc.update("insert into category (name) values ('Legacy')");
+        Long categoryId = jdbc.queryForObject("select id from category", Long.class);
+        for (int i = 0; i < 3; i++) {
+            jdbc.update("insert into product (name, price, stock, category_id) values (?, 10.00, 5, ?)",
+                    "Product" + i, categoryId);
+        }
+        Long maxProductId = jdbc.queryForObject("select max(id) from product", Long.class);
+        jdbc.update("insert into product_images (product_id, image_url) values (?, 'http://example.com/b.jpg')",
+                maxProductId);
+        jdbc.update("insert into product_images (product_id, image_url) values (?, 'http://example.com/a.jpg')",
+                maxProductId);
+
+        Flyway.configure().dataSource(dataSource).placeholders(H2_TYPES).load().migrate();
+
+        // El primer bloque pooled (inicio - 49 .. inicio) empieza justo después del id más alto
+        assertEquals(maxProductId + 50, jdbc.queryForObject(
+                "select start_value from information_schema.sequences where sequence_name = 'PRODUCT_SEQ'",
+                Long.class));
+        assertEquals(categoryId + 50, jdbc.queryForObject(
+                "select start_value from information_schema.sequences where sequence_name = 'CATEGORY_SEQ'",
+                Long.class));
+        assertEquals(3, jdbc.queryForObject("select count(*) from product where version = 0", Integer.class));
+        // Las imágenes conservan el orden en que se insertaron
+        assertEquals(List.of("http://example.com/b.jpg", "http://example.com/a.jpg"), jdbc.queryForList(
+                "select image_url from product_images where product_id = ? order by image_order", String.class,
+                maxProductId));
+        // Sin IDENTITY: el id lo pone la aplicación desde la secuencia
+        assertEquals(List.of("NO", "NO"), jdbc.queryForList("select is_identity from information_schema.columns "
+                + "where table_name in ('PRODUCT', 'CATEGORY') and column_name = 'ID'", String.class));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.model.Category;
+import com.example.product_service.repository.CategoryRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Medición y datos de prueba comunes a los benchmarks
+final class BenchmarkSupport {
+
+    @FunctionalInterface
+    interface Action {
+        void run() throws Exception;
+    }
+
+    private BenchmarkSupport() {
+    }
+
+    static long timeNanos(Action action) throws Exception {
+        long start = System.nanoTime();
+        action.run();
+        return System.nanoTime() - start;
+    }
+
+    static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    static long perSecond(long count, long nanos) {
+        return Math.round(count / (nanos / 1e9));
+    }
+
+    static Category saveCategory(CategoryRepository categoryRepository, String name) {
+        Category category = new Category();
+        category.setName(name);
+        return categoryRepository.save(category);
+    }
+
+    static List<ProductDto> productDtos(Long categoryId, int count) {
+        List<ProductDto> productDtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductDto productDto = new ProductDto();
+            productDto.setName("Product" + i);
+            productDto.setDescription("Benchmark product");
+            productDto.setPrice(new BigDecimal("19.99"));
+            productDto.setStock(10);
+            productDto.setCategoryId(categoryId);
+            productDto.setImageUrls(List.of("http://example.com/" + i + "-a.jpg", "http://example.com/" + i + "-b.jpg"));
+            productDtos.add(productDto);
+        }
+        return productDtos;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.CategoryService;
+import com.example.product_service.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.example.product_service.benchmark.BenchmarkSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compara el borrado de una categoría por cascada de JPA (entidad por entidad) con el borrado en bloque.
+// La cascada se mide con menos productos porque con 100.000 tarda minutos.
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import({ProductService.class, CategoryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class CategoryDeleteBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryDeleteBenchmarkTest.class);
+    private static final int BULK_PRODUCT_COUNT = 100_000;
+    private static final int CASCADE_PRODUCT_COUNT = 10_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void compareCascadeWithSetBasedDelete() throws Exception {
+        // Calentamiento de JIT y pool de conexiones
+        categoryService.deleteCategory(createCategory("Warmup bulk", 1000));
+        categoryRepository.deleteById(createCategory("Warmup cascade", 1000));
+
+        Long cascadeCategoryId = createCategory("Cascade", CASCADE_PRODUCT_COUNT);
+        long cascadeNanos = timeNanos(() -> categoryRepository.deleteById(cascadeCategoryId));
+
+        Long bulkCategoryId = createCategory("Bulk", BULK_PRODUCT_COUNT);
+        long bulkNanos = timeNanos(() -> categoryService.deleteCategory(bulkCategoryId));
+
+        assertEquals(0, productRepository.count());
+        assertEquals(0, categoryRepository.count());
+        logger.info("delete category: cascade {} products in {} ms ({} rows/s), "
+                        + "set-based {} products in {} ms ({} rows/s)",
+                CASCADE_PRODUCT_COUNT, millis(cascadeNanos), perSecond(CASCADE_PRODUCT_COUNT, cascadeNanos),
+                BULK_PRODUCT_COUNT, millis(bulkNanos), perSecond(BULK_PRODUCT_COUNT, bulkNanos));
+    }
+
+    private Long createCategory(String name, int productCount) {
+        Long categoryId = saveCategory(categoryRepository, name).getId();
+        for (int created = 0; created < productCount; created += ProductService.MAX_BATCH_SIZE) {
+            productService.createProducts(productDtos(categoryId,
+                    Math.min(ProductService.MAX_BATCH_SIZE, productCount - created)));
+        }
+        return categoryId;
+    }
+}
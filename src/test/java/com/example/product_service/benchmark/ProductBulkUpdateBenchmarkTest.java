@@ -0,0 +1,90 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductPatchDto;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.service.ProductBulkUpdateService;
+import com.example.product_service.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.product_service.benchmark.BenchmarkSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compara PUT por producto (dos findById y merge por fila) con el PATCH masivo en lotes JDBC
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import({ProductService.class, ProductBulkUpdateService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class ProductBulkUpdateBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkUpdateBenchmarkTest.class);
+    private static final int PRODUCT_COUNT = 20_000;
+    private static final int PER_ROW_COUNT = 2_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void comparePerRowUpdateWithBulkPatch() throws Exception {
+        Long categoryId = saveCategory(categoryRepository, "Benchmark").getId();
+        List<ProductDto> products = new ArrayList<>(PRODUCT_COUNT);
+        for (int created = 0; created < PRODUCT_COUNT; created += ProductService.MAX_BATCH_SIZE) {
+            products.addAll(productService.createProducts(productDtos(categoryId, ProductService.MAX_BATCH_SIZE)));
+        }
+
+        // Calentamiento de JIT y pool de conexiones
+        updatePerRow(products.subList(0, 200));
+        productBulkUpdateService.patchProducts(createPatches(products.subList(0, 2000)));
+
+        long perRowNanos = timeNanos(() -> updatePerRow(products.subList(0, PER_ROW_COUNT)));
+        AtomicInteger updated = new AtomicInteger();
+        long bulkNanos = timeNanos(() ->
+                updated.set(productBulkUpdateService.patchProducts(createPatches(products)).getUpdated()));
+
+        assertEquals(PRODUCT_COUNT, updated.get());
+        logger.info("price/stock update: per-row PUT {} rows in {} ms ({} rows/s), "
+                        + "bulk PATCH {} rows in {} ms ({} rows/s)",
+                PER_ROW_COUNT, millis(perRowNanos), perSecond(PER_ROW_COUNT, perRowNanos),
+                PRODUCT_COUNT, millis(bulkNanos), perSecond(PRODUCT_COUNT, bulkNanos));
+    }
+
+    private void updatePerRow(List<ProductDto> products) {
+        for (ProductDto product : products) {
+            product.setPrice(product.getPrice().add(BigDecimal.ONE));
+            product.setStock(product.getStock() + 1);
+            productService.updateProduct(product.getId(), product);
+        }
+    }
+
+    private List<ProductPatchDto> createPatches(List<ProductDto> products) {
+        List<ProductPatchDto> patches = new ArrayList<>(products.size());
+        for (ProductDto product : products) {
+            patches.add(new ProductPatchDto(product.getId(), product.getPrice().add(BigDecimal.ONE),
+                    product.getStock() + 1));
+        }
+        return patches;
+    }
+}
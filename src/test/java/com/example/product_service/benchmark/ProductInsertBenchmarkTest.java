@@ -0,0 +1,67 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.example.product_service.benchmark.BenchmarkSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compara el alta uno a uno (una transacción por producto) con el alta en lotes JDBC
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import(ProductService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class ProductInsertBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductInsertBenchmarkTest.class);
+    private static final int PRODUCT_COUNT = 5000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void compareOneByOneWithBatchInsert() throws Exception {
+        Long categoryId = saveCategory(categoryRepository, "Benchmark").getId();
+
+        // Calentamiento de JIT y pool de conexiones
+        productService.createProducts(productDtos(categoryId, 500));
+        createOneByOne(productDtos(categoryId, 500));
+
+        long oneByOneNanos = timeNanos(() -> createOneByOne(productDtos(categoryId, PRODUCT_COUNT)));
+        long batchNanos = timeNanos(() -> productService.createProducts(productDtos(categoryId, PRODUCT_COUNT)));
+
+        assertEquals(2L * PRODUCT_COUNT + 1000, productRepository.count());
+        logger.info("insert {} products: one-by-one {} ms ({} rows/s), batch {} ms ({} rows/s)", PRODUCT_COUNT,
+                millis(oneByOneNanos), perSecond(PRODUCT_COUNT, oneByOneNanos),
+                millis(batchNanos), perSecond(PRODUCT_COUNT, batchNanos));
+    }
+
+    private void createOneByOne(List<ProductDto> productDtos) {
+        for (ProductDto productDto : productDtos) {
+            productService.createProduct(productDto);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import com.example.product_service.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.product_service.benchmark.BenchmarkSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Rendimiento de reservas concurrentes sobre un único producto "caliente"
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import(ProductService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class StockReservationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationBenchmarkTest.class);
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+    private static final long DURATION_MILLIS = 3000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void hotProductReservationThroughput() throws Exception {
+        Category category = saveCategory(categoryRepository, "Benchmark");
+
+        Product product = new Product();
+        product.setName("Hot product");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(Integer.MAX_VALUE);
+        product.setCategory(category);
+        Long productId = productRepository.save(product).getId();
+
+        for (int threads : THREAD_COUNTS) {
+            long operations = run(productId, threads);
+            logger.info("reserve on hot product: {} threads, {} ops/s", threads,
+                    perSecond(operations, TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS)));
+        }
+    }
+
+    private long run(Long productId, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                long count = 0;
+                while (System.currentTimeMillis() < deadline) {
+                    productService.reserveStock(productId, 1);
+                    count++;
+                }
+                return count;
+            }));
+        }
+        long total = 0;
+        for (Future<Long> future : futures) {
+            total += future.get(DURATION_MILLIS * 10, TimeUnit.MILLISECONDS);
+        }
+        executor.shutdown();
+        assertTrue(total > 0);
+        return total;
+    }
+}
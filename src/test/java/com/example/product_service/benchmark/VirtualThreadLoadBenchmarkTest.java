@@ -0,0 +1,97 @@
+package com.example.product_service.benchmark;
+
+import com.example.product_service.config.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static com.example.product_service.benchmark.BenchmarkSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Carga mixta con Oracle lento: 10% de peticiones van a la BD (200 ms, pool de 20 conexiones) y el 90%
+// se resuelve en memoria (1 ms). Compara el pool de 200 hilos de Tomcat con hilos virtuales + semáforo.
+@Tag("benchmark")
+public class VirtualThreadLoadBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadBenchmarkTest.class);
+    private static final int REQUESTS = 5000;
+    private static final int DB_POOL_SIZE = 20;
+    private static final long DB_LATENCY_MILLIS = 200;
+    private static final long CACHED_LATENCY_MILLIS = 1;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(Executors.newFixedThreadPool(200), pooledDataSource(), "platform (200 threads)");
+        Result virtual = run(Executors.newVirtualThreadPerTaskExecutor(),
+                new ConnectionLimitingDataSource(pooledDataSource(), DB_POOL_SIZE, 60_000), "virtual + semaphore");
+
+        assertTrue(platform.elapsedMillis > 0 && virtual.elapsedMillis > 0);
+    }
+
+    private Result run(ExecutorService executor, DataSource dataSource, String label) throws Exception {
+        List<Long> cachedLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        long elapsedNanos = timeNanos(() -> {
+            for (int i = 0; i < REQUESTS; i++) {
+                boolean hitsDatabase = i % 10 == 0;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    if (hitsDatabase) {
+                        try (Connection connection = dataSource.getConnection()) {
+                            Thread.sleep(DB_LATENCY_MILLIS);
+                        }
+                    } else {
+                        Thread.sleep(CACHED_LATENCY_MILLIS);
+                        cachedLatencies.add(millis(System.nanoTime() - submitted));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        });
+        long elapsedMillis = millis(elapsedNanos);
+        executor.shutdown();
+
+        List<Long> sorted = new ArrayList<>(cachedLatencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) (sorted.size() * 0.99) - 1);
+        logger.info("{}: {} requests in {} ms ({} req/s), cached-request p99 {} ms",
+                label, REQUESTS, elapsedMillis, perSecond(REQUESTS, elapsedNanos), p99);
+        return new Result(elapsedMillis);
+    }
+
+    // Pool simulado: como Hikari, bloquea al pedir conexión cuando ya hay DB_POOL_SIZE prestadas
+    private DataSource pooledDataSource() throws Exception {
+        Semaphore pool = new Semaphore(DB_POOL_SIZE, true);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            pool.acquire();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        if ("close".equals(method.getName())) {
+                            pool.release();
+                        }
+                        return null;
+                    });
+        });
+        return dataSource;
+    }
+
+    private record Result(long elapsedMillis) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.product_service.catalog;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.exception.InvalidPageRequestException;
+import com.example.product_service.service.ProductExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CatalogSnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        snapshot = new CatalogSnapshot();
+    }
+
+    @Test
+    void testWriteProduct_SameJsonAsProductDto() throws IOException {
+        ProductDto product = product(7L, 2L, "19.99");
+        product.setName("Máscara \"Kabuki\"");
+        product.setDescription(null);
+        snapshot.put(product);
+
+        assertEquals(dtoJson(product), productJson(7L));
+        assertNull(productJson(8L));
+    }
+
+    @Test
+    void testPut_KeepsIdOrderAndReplacesExistingRow() throws IOException {
+        snapshot.put(product(30L, 1L, "3.00"));
+        snapshot.put(product(10L, 1L, "1.00"));
+        snapshot.put(product(20L, 1L, "2.00"));
+        ProductDto renamed = product(20L, 2L, "2.50");
+        renamed.setName("Renamed");
+        renamed.setImageUrls(List.of("http://example.com/new.jpg"));
+        snapshot.put(renamed);
+
+        JsonNode page = pageJson(0, 10);
+        assertEquals(3, snapshot.size());
+        assertEquals(3, page.get("size").asInt());
+        assertEquals(List.of(10L, 20L, 30L), ids(page));
+        assertEquals(dtoJson(renamed), page.get("items").get(1));
+        assertTrue(page.get("nextAfter").isNull());
+    }
+
+    @Test
+    void testWritePage_KeysetOverIds() throws IOException {
+        for (long id = 1; id <= 250; id++) {
+            snapshot.put(product(id, 1L, "9.99"));
+        }
+
+        JsonNode first = pageJson(0, 2);
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertEquals(2L, first.get("nextAfter").asLong());
+
+        JsonNode capped = pageJson(first.get("nextAfter").asLong(), 1000);
+        assertEquals(CatalogSnapshot.MAX_PAGE_SIZE, capped.get("size").asInt());
+        assertEquals(3L, ids(capped).get(0));
+        assertEquals(102L, capped.get("nextAfter").asLong());
+
+        JsonNode last = pageJson(240, 20);
+        assertEquals(10, last.get("size").asInt());
+        assertTrue(last.get("nextAfter").isNull());
+
+        assertThrows(InvalidPageRequestException.class, () -> pageJson(0, 0));
+    }
+
+    @Test
+    void testUpdateInventoryRemoveAndRemoveCategory() throws IOException {
+        snapshot.put(product(1L, 1L, "10.00"));
+        snapshot.put(product(2L, 2L, "20.00"));
+        snapshot.put(product(3L, 1L, "30.00"));
+        snapshot.put(product(4L, 2L, "40.00"));
+
+        snapshot.updateInventory(2L, new BigDecimal("21.5"), null);
+        snapshot.updateInventory(4L, null, 0);
+        snapshot.updateInventory(99L, BigDecimal.ONE, 1);
+        assertEquals(21.5, productJson(2L).get("price").asDouble());
+        assertEquals(5, productJson(2L).get("stock").asInt());
+        assertEquals(0, productJson(4L).get("stock").asInt());
+        assertEquals(40.0, productJson(4L).get("price").asDouble());
+
+        snapshot.remove(3L);
+        snapshot.remove(99L);
+        assertEquals(List.of(1L, 2L, 4L), ids(pageJson(0, 10)));
+
+        snapshot.removeCategory(2L);
+        assertEquals(List.of(1L), ids(pageJson(0, 10)));
+    }
+
+    @Test
+    void testSharedTextsAreStoredOnceAndReplacedTextsAreCompacted() {
+        for (long id = 1; id <= 100; id++) {
+            ProductDto product = product(id, 1L, "5.00");
+            product.setDescription("Same description");
+            product.setImageUrls(List.of("http://example.com/placeholder.jpg"));
+            snapshot.put(product);
+        }
+        assertEquals(102, snapshot.dictionarySize());
+
+        // Renombrar muchas veces deja textos sin uso; el diccionario se compacta en vez de crecer sin límite
+        for (int round = 0; round < 5000; round++) {
+            ProductDto product = product(1L, 1L, "5.00");
+            product.setName("Name " + round);
+            snapshot.put(product);
+        }
+        assertTrue(snapshot.dictionarySize() < 2000);
+    }
+
+    @Test
+    void testUpdaterRebuild_ChangesCommittedDuringLoadWinOverStreamedRows() throws IOException {
+        ProductExportService productExportService = mock(ProductExportService.class);
+        CatalogSnapshotUpdater updater = new CatalogSnapshotUpdater(snapshot, productExportService);
+        ProductDto renamed = product(1L, 1L, "5.00");
+        renamed.setName("Renamed");
+        when(productExportService.forEachProduct(any())).thenAnswer(invocation -> {
+            Consumer<ProductDto> consumer = invocation.getArgument(0);
+            // Commits que llegan mientras la carga todavía entrega filas leídas antes
+            updater.onProductChanged(ProductChangedEvent.deleted(2L));
+            updater.onProductChanged(ProductChangedEvent.updated(renamed));
+            consumer.accept(product(1L, 1L, "5.00"));
+            consumer.accept(product(2L, 1L, "6.00"));
+            consumer.accept(product(3L, 1L, "7.00"));
+            return 3L;
+        });
+
+        updater.rebuild();
+
+        assertEquals(List.of(1L, 3L), ids(pageJson(0, 10)));
+        assertEquals(dtoJson(renamed), productJson(1L));
+
+        // Terminada la carga, los cambios se aplican directamente
+        updater.onProductChanged(ProductChangedEvent.deleted(3L));
+        assertEquals(List.of(1L), ids(pageJson(0, 10)));
+    }
+
+    @Test
+    void testFormatMinorUnits() {
+        char[] buffer = new char[22];
+        assertEquals("0.05", format(5, buffer));
+        assertEquals("19.99", format(1999, buffer));
+        assertEquals("1000000.00", format(100_000_000, buffer));
+        assertEquals("-1.20", format(-120, buffer));
+        assertEquals(1999, CatalogSnapshot.toMinorUnits(new BigDecimal("19.985")));
+    }
+
+    private static String format(long minorUnits, char[] buffer) {
+        int start = CatalogSnapshot.formatMinorUnits(minorUnits, buffer);
+        return new String(buffer, start, buffer.length - start);
+    }
+
+    private JsonNode dtoJson(ProductDto product) throws IOException {
+        return objectMapper.readTree(objectMapper.writeValueAsString(product));
+    }
+
+    private JsonNode productJson(long id) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (!snapshot.writeProduct(id, generator)) {
+                return null;
+            }
+        }
+        return objectMapper.readTree(out.toString());
+    }
+
+    private JsonNode pageJson(long after, int size) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            snapshot.writePage(after, size, generator);
+        }
+        return objectMapper.readTree(out.toString());
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private static ProductDto product(long id, long categoryId, String price) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setDescription("Description " + id);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(5);
+        product.setCategoryId(categoryId);
+        product.setImageUrls(List.of("http://example.com/" + id + ".jpg"));
+        return product;
+    }
+}
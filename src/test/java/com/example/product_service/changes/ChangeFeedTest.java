@@ -0,0 +1,228 @@
+package com.example.product_service.changes;
+
+import com.example.product_service.dto.CategoryDto;
+import com.example.product_service.dto.ChangeEventDto;
+import com.example.product_service.dto.ChangeFeedDto;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.event.ChangeType;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.ChangeEvent;
+import com.example.product_service.model.ChangeEvent.AggregateType;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ChangeEventRepository;
+import com.example.product_service.service.CategoryService;
+import com.example.product_service.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Outbox real contra H2: las mutaciones de ProductService confirman su evento junto con el cambio
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import({ProductService.class, CategoryService.class, ChangeOutboxWriter.class, ChangeRelay.class, ChangeFeed.class,
+        ChangeFeedTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ChangeFeedTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        TaskExecutor taskExecutor() {
+            return new SyncTaskExecutor();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ChangeRelay changeRelay;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testMutationsArePublishedInOrder() {
+        Long categoryId = createCategory();
+        ProductDto created = productService.createProduct(product("Rubor", categoryId));
+        ProductDto update = product("Rubor mate", categoryId);
+        productService.updateProduct(created.getId(), update);
+        productService.deleteProduct(created.getId());
+
+        // Confirmados en el outbox pero aún sin offset
+        assertEquals(3, changeEventRepository.count());
+        assertEquals(3, changeEventRepository.findByPendingTrueOrderByIdAsc(PageRequest.of(0, 10)).size());
+        assertTrue(changeFeed.readAfter(0, 10).isEmpty());
+
+        changeRelay.relay();
+        assertTrue(changeEventRepository.findByPendingTrueOrderByIdAsc(PageRequest.of(0, 10)).isEmpty());
+
+        List<ChangeEventDto> events = changeFeed.readAfter(0, 10);
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(ChangeEventDto::getOffset).toList());
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"),
+                events.stream().map(ChangeEventDto::getChangeType).toList());
+        assertEquals("PRODUCT", events.get(0).getAggregateType());
+        assertEquals("Rubor mate", events.get(1).getPayload().get("name").asText());
+        assertNull(events.get(2).getPayload());
+    }
+
+    @Test
+    void testRolledBackMutationLeavesNoEvent() {
+        Long categoryId = createCategory();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.createProduct(product("Labial", categoryId));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, changeEventRepository.count());
+    }
+
+    @Test
+    void testPollResumesFromOffset() throws Exception {
+        Long categoryId = createCategory();
+        productService.createProduct(product("Uno", categoryId));
+        productService.createProduct(product("Dos", categoryId));
+        changeRelay.relay();
+
+        ChangeFeedDto feed = changeFeed.poll(1, 10, Duration.ZERO).get();
+
+        assertEquals(1, feed.getEvents().size());
+        assertEquals("Dos", feed.getEvents().get(0).getPayload().get("name").asText());
+        assertEquals(2, feed.getNextOffset());
+    }
+
+    @Test
+    void testLongPollCompletesWhenRelayPublishes() throws Exception {
+        Long categoryId = createCategory();
+        CompletableFuture<ChangeFeedDto> pending = changeFeed.poll(0, 10, Duration.ofSeconds(20));
+        assertFalse(pending.isDone());
+
+        productService.createProduct(product("Crema", categoryId));
+        changeRelay.relay();
+
+        assertTrue(pending.isDone());
+        assertEquals(1, pending.get().getEvents().size());
+        assertEquals(1, pending.get().getNextOffset());
+    }
+
+    @Test
+    void testConcurrentUpdatesArePublishedInCommitOrder() throws Exception {
+        Long categoryId = createCategory();
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    categoryService.updateCategory(categoryId, category("Primera"));
+                    firstWritten.countDown();
+                    await(releaseFirst);
+                }));
+        assertTrue(firstWritten.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(
+                () -> categoryService.updateCategory(categoryId, category("Segunda")));
+
+        // La segunda espera el bloqueo de la fila: no escribe su evento hasta que la primera confirma
+        assertThrows(TimeoutException.class, () -> second.get(300, TimeUnit.MILLISECONDS));
+        releaseFirst.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        changeRelay.relay();
+
+        // El último offset describe el estado que quedó en la base
+        List<ChangeEventDto> events = changeFeed.readAfter(0, 10);
+        assertEquals(List.of("Primera", "Segunda"),
+                events.stream().map(event -> event.getPayload().get("name").asText()).toList());
+        assertEquals("Segunda", categoryRepository.findById(categoryId).orElseThrow().getName());
+    }
+
+    @Test
+    void testRelayFollowsAggregateSequenceNotId() {
+        // Cada instancia toma ids de su propio bloque: el cambio confirmado después puede tener el id menor
+        changeEventRepository.save(new ChangeEvent(AggregateType.PRODUCT, 7L, 2, ChangeType.UPDATED, "{}"));
+        changeEventRepository.save(new ChangeEvent(AggregateType.PRODUCT_INVENTORY, 7L, 3, ChangeType.UPDATED, "{}"));
+        changeEventRepository.save(new ChangeEvent(AggregateType.CATEGORY, 7L, 1, ChangeType.CREATED, "{}"));
+        changeEventRepository.save(new ChangeEvent(AggregateType.PRODUCT, 7L, 1, ChangeType.CREATED, "{}"));
+
+        changeRelay.relay();
+
+        // La categoría 7 no espera a los eventos del producto 7
+        List<ChangeEventDto> events = changeFeed.readAfter(0, 10);
+        assertEquals(List.of("CATEGORY:CREATED", "PRODUCT:CREATED", "PRODUCT:UPDATED", "PRODUCT_INVENTORY:UPDATED"),
+                events.stream().map(event -> event.getAggregateType() + ":" + event.getChangeType()).toList());
+        assertTrue(changeEventRepository.findByPendingTrueOrderByIdAsc(PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static CategoryDto category(String name) {
+        CategoryDto category = new CategoryDto();
+        category.setName(name);
+        return category;
+    }
+
+    private Long createCategory() {
+        Category category = new Category();
+        category.setName("Changes");
+        return categoryRepository.save(category).getId();
+    }
+
+    private static ProductDto product(String name, Long categoryId) {
+        ProductDto product = new ProductDto();
+        product.setName(name);
+        product.setPrice(new BigDecimal("9.90"));
+        product.setStock(3);
+        product.setCategoryId(categoryId);
+        product.setImageUrls(List.of("http://example.com/" + name.replace(' ', '-') + ".jpg"));
+        return product;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.product_service.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Dos H2 embebidas hacen de primario y réplica; cada una responde con su propio nombre
+public class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    public void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReadWriteRoutingDataSource.unpin();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        DataSource dataSource = routing(replica);
+
+        assertEquals("replica", currentDatabase(dataSource, true));
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() {
+        DataSource dataSource = routing(replica);
+
+        assertEquals("primary", currentDatabase(dataSource, false));
+    }
+
+    @Test
+    void testNoTransactionUsesPrimary() {
+        DataSource dataSource = routing(replica);
+
+        assertEquals("primary", new JdbcTemplate(dataSource).queryForObject("select name from db_role", String.class));
+    }
+
+    @Test
+    void testPinnedThreadReadsFromPrimary() {
+        DataSource dataSource = routing(replica);
+
+        ReadWriteRoutingDataSource.pinToPrimary();
+
+        assertEquals("primary", currentDatabase(dataSource, true));
+    }
+
+    @Test
+    void testFallsBackToPrimaryWhileReplicaIsDown() throws SQLException {
+        DataSource downReplica = mock(DataSource.class);
+        when(downReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        DataSource dataSource = routing(downReplica);
+
+        assertEquals("primary", currentDatabase(dataSource, true));
+        assertEquals("primary", currentDatabase(dataSource, true));
+
+        // Dentro del intervalo de reintento no se vuelve a intentar la réplica
+        verify(downReplica, times(1)).getConnection();
+    }
+
+    private DataSource routing(DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replicaDataSource, Duration.ofMinutes(1)));
+    }
+
+    private String currentDatabase(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("select name from db_role", String.class));
+    }
+
+    private static EmbeddedDatabase database(String role) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table db_role (name varchar(20))");
+        jdbcTemplate.update("insert into db_role (name) values (?)", role);
+        return database;
+    }
+}
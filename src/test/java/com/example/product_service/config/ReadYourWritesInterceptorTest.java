@@ -0,0 +1,69 @@
+package com.example.product_service.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMillis(1500));
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+            mock(DataSource.class), mock(DataSource.class), Duration.ofSeconds(10));
+
+    @BeforeEach
+    public void setUp() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadWriteRoutingDataSource.unpin();
+    }
+
+    @Test
+    void testWriteSetsStickyCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("PUT", "/api/products/1"), response, null);
+
+        String cookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        assertTrue(cookie.startsWith(ReadYourWritesInterceptor.COOKIE_NAME + "=1"));
+        assertTrue(cookie.contains("Max-Age=2"));
+    }
+
+    @Test
+    void testReadWithoutCookieIsNotPinned() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/products/1"), response, null);
+
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadWithCookieIsPinnedUntilCompletion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, "1"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routing.determineCurrentLookupKey());
+
+        interceptor.afterCompletion(request, response, null, null);
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routing.determineCurrentLookupKey());
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.product_service.controller;
 
 import com.example.product_service.dto.CategoryDto;
+import com.example.product_service.dto.CategoryStatsDto;
+import com.example.product_service.dto.CollectionVersion;
+import com.example.product_service.dto.EntityVersion;
+import com.example.product_service.dto.VersionedCategories;
 import com.example.product_service.exception.GlobalExceptionHandler;
 import com.example.product_service.service.CategoryService;
 import com.example.product_service.exception.CategoryNotFoundException;
@@ -14,16 +18,22 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -105,7 +115,8 @@ public class CategoryControllerTest {
                 category2.setId(2L);
                 category2.setName("Categoría 2");
 
-                when(categoryService.getAllCategories()).thenReturn(Arrays.asList(category1, category2));
+                when(categoryService.getVersionedCategories()).thenReturn(new VersionedCategories(
+                                CollectionVersion.of(List.of(), null), Arrays.asList(category1, category2)));
 
                 // Ejecutar y verificar
                 mockMvc.perform(get("/api/categories")
@@ -116,7 +127,54 @@ public class CategoryControllerTest {
                                 .andExpect(jsonPath("$[1].id").value(2L))
                                 .andExpect(jsonPath("$[1].name").value("Categoría 2"));
 
-                verify(categoryService, times(1)).getAllCategories();
+                verify(categoryService, times(1)).getVersionedCategories();
+        }
+
+        @Test
+        public void testGetCategoryStats() throws Exception {
+                when(categoryService.getCategoryStats()).thenReturn(Arrays.asList(
+                                new CategoryStatsDto(1L, "Categoría 1", 2L, 15L, new BigDecimal("150.00"))));
+
+                mockMvc.perform(get("/api/categories/stats"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].categoryId").value(1L))
+                                .andExpect(jsonPath("$[0].productCount").value(2))
+                                .andExpect(jsonPath("$[0].totalStock").value(15))
+                                .andExpect(jsonPath("$[0].stockValue").value(150.00));
+
+                verify(categoryService, never()).getCategoryById(anyLong());
+        }
+
+        @Test
+        public void testGetAllCategories_NotModified() throws Exception {
+                CollectionVersion version = CollectionVersion.of(
+                                List.of(new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0))), null);
+                CategoryDto category = new CategoryDto();
+                category.setId(1L);
+                when(categoryService.getVersionedCategories())
+                                .thenReturn(new VersionedCategories(version, List.of(category)));
+
+                mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                // Una categoría borrada cambia el ETag aunque la última fecha del listado siga igual
+                when(categoryService.getVersionedCategories())
+                                .thenReturn(new VersionedCategories(CollectionVersion.of(List.of(), null), List.of()));
+
+                mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                                .andExpect(status().isOk());
+        }
+
+        @Test
+        public void testGetCategoryById_NotModified() throws Exception {
+                EntityVersion version = new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0));
+                when(categoryService.findCategoryVersion(1L)).thenReturn(Optional.of(version));
+
+                mockMvc.perform(get("/api/categories/1").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                                .andExpect(status().isNotModified());
+
+                verify(categoryService, never()).getCategoryById(1L);
         }
 
         @Test
@@ -1,10 +1,28 @@
 package com.example.product_service.controller;
 
+import com.example.product_service.config.WebConfig;
+import com.example.product_service.dto.BulkPatchResultDto;
+import com.example.product_service.dto.CollectionVersion;
+import com.example.product_service.dto.EntityVersion;
 import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductLookupDto;
+import com.example.product_service.dto.ProductPageDto;
+import com.example.product_service.dto.ProductPatchDto;
+import com.example.product_service.dto.ProductPatchResultDto;
+import com.example.product_service.dto.StockDto;
+import com.example.product_service.dto.VersionedProduct;
+import com.example.product_service.dto.VersionedProductPage;
 import com.example.product_service.exception.GlobalExceptionHandler;
+import com.example.product_service.exception.InsufficientStockException;
+import com.example.product_service.exception.InvalidPageRequestException;
 import com.example.product_service.exception.ProductNotFoundException;
+import com.example.product_service.responsecache.ProductResponseCache;
+import com.example.product_service.service.ProductBulkUpdateService;
+import com.example.product_service.service.ProductExportService;
 import com.example.product_service.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,18 +31,31 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +69,12 @@ public class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductExportService productExportService;
+
+    @Mock
+    private ProductBulkUpdateService productBulkUpdateService;
+
     private MockMvc mockMvc;
 
     private ObjectMapper objectMapper;
@@ -45,7 +82,9 @@ public class ProductControllerTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        productController = new ProductController(productService);
+        productController = new ProductController(productService, productExportService, productBulkUpdateService,
+                new ProductResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), DataSize.ofMegabytes(1), true,
+                        DataSize.ofKilobytes(2), Duration.ofMinutes(10)));
         mockMvc = MockMvcBuilders.standaloneSetup(productController)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -62,17 +101,91 @@ public class ProductControllerTest {
         product2.setId(2L);
         product2.setName("Producto 2");
 
-        when(productService.getAllProducts()).thenReturn(Arrays.asList(product1, product2));
+        when(productService.getVersionedProductPage(null, 20, "id"))
+                .thenReturn(versioned(new ProductPageDto(Arrays.asList(product1, product2), "next-token")));
 
         mockMvc.perform(get("/api/products")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("Producto 1"))
-                .andExpect(jsonPath("$[1].id").value(2L))
-                .andExpect(jsonPath("$[1].name").value("Producto 2"));
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].name").value("Producto 1"))
+                .andExpect(jsonPath("$.items[1].id").value(2L))
+                .andExpect(jsonPath("$.items[1].name").value("Producto 2"))
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+
+        verify(productService, times(1)).getVersionedProductPage(null, 20, "id");
+    }
+
+    @Test
+    public void testGetProducts_WithCursorAndSort() throws Exception {
+        when(productService.getVersionedProductPage("abc", 50, "price"))
+                .thenReturn(versioned(new ProductPageDto(Collections.emptyList(), null)));
+
+        mockMvc.perform(get("/api/products")
+                .param("cursor", "abc")
+                .param("size", "50")
+                .param("sort", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(productService, times(1)).getVersionedProductPage("abc", 50, "price");
+    }
+
+    @Test
+    public void testGetProducts_InvalidCursor() throws Exception {
+        when(productService.getVersionedProductPage("bad", 20, "id"))
+                .thenThrow(new InvalidPageRequestException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/products").param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    public void testGetProductsByIds() throws Exception {
+        ProductDto product3 = new ProductDto();
+        product3.setId(3L);
+        ProductDto product1 = new ProductDto();
+        product1.setId(1L);
+
+        when(productService.getProductsByIds(List.of(3L, 9L, 1L)))
+                .thenReturn(new ProductLookupDto(List.of(product3, product1), List.of(9L)));
+
+        mockMvc.perform(get("/api/products").param("ids", "3,9,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(3L))
+                .andExpect(jsonPath("$.products[1].id").value(1L))
+                .andExpect(jsonPath("$.missingIds[0]").value(9L));
+
+        verify(productService, never()).getVersionedProductPage(any(), anyInt(), any());
+    }
+
+    @Test
+    public void testGetProductsByIds_TooMany() throws Exception {
+        when(productService.getProductsByIds(anyList()))
+                .thenThrow(new InvalidPageRequestException("At most 500 product ids per request"));
+
+        mockMvc.perform(get("/api/products").param("ids", "1,2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 500 product ids per request"));
+    }
+
+    @Test
+    public void testExportProducts() throws Exception {
+        when(productExportService.exportProducts(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        mockMvc.perform(get("/api/products/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ProductController.NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
 
-        verify(productService, times(1)).getAllProducts();
+        verify(productExportService, times(1)).exportProducts(any(OutputStream.class));
     }
 
     @Test
@@ -92,6 +205,25 @@ public class ProductControllerTest {
         verify(productService, times(1)).getProductById(1L);
     }
 
+    @Test
+    public void testGetProductById_NegotiatesCbor() throws Exception {
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+        product.setName("Producto 1");
+        product.setPrice(new BigDecimal("19.99"));
+
+        when(productService.getProductById(1L)).thenReturn(product);
+
+        byte[] body = mockMvc.perform(get("/api/products/1").accept(WebConfig.CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WebConfig.CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ProductDto decoded = new CBORMapper().readValue(body, ProductDto.class);
+        assertEquals("Producto 1", decoded.getName());
+        assertEquals(new BigDecimal("19.99"), decoded.getPrice());
+    }
+
     @Test
     public void testGetProductById_NotFound() throws Exception {
         when(productService.getProductById(1L)).thenThrow(new ProductNotFoundException("Product with ID 1 not found"));
@@ -103,6 +235,90 @@ public class ProductControllerTest {
         verify(productService, times(1)).getProductById(1L);
     }
 
+    @Test
+    public void testGetProductById_SendsValidators() throws Exception {
+        EntityVersion version = new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0), 3L);
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(version));
+        when(productService.findVersionedProduct(1L)).thenReturn(Optional.of(new VersionedProduct(version, product)));
+
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-" + version.lastModifiedMillis() + "-3\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void testGetProductById_NotModified() throws Exception {
+        EntityVersion version = new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0), 3L);
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(version));
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getProductById(anyLong());
+    }
+
+    @Test
+    public void testGetProductById_ServesCachedBytesForSameVersion() throws Exception {
+        EntityVersion version = new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0), 3L);
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+        product.setName("Producto 1");
+
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(version));
+        when(productService.findVersionedProduct(1L)).thenReturn(Optional.of(new VersionedProduct(version, product)));
+        when(productService.getProductById(1L)).thenReturn(product);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/products/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.name").value("Producto 1"))
+                    .andExpect(header().string(HttpHeaders.ETAG, version.etag()));
+        }
+
+        // Una nueva versión vuelve a cargar y codificar; CBOR no pasa por la caché de bytes
+        EntityVersion updated = new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0), 4L);
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(updated));
+        when(productService.findVersionedProduct(1L)).thenReturn(Optional.of(new VersionedProduct(updated, product)));
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updated.etag()));
+        mockMvc.perform(get("/api/products/1").accept(WebConfig.CBOR))
+                .andExpect(content().contentType(WebConfig.CBOR));
+
+        verify(productService, times(2)).findVersionedProduct(1L);
+        verify(productService, times(1)).getProductById(1L);
+    }
+
+    @Test
+    public void testGetProducts_NotModified() throws Exception {
+        ProductDto product = new ProductDto();
+        product.setId(1L);
+        EntityVersion row = new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0), 3L);
+        CollectionVersion version = CollectionVersion.of(List.of(row), null);
+        when(productService.getVersionedProductPage(null, 20, "id"))
+                .thenReturn(new VersionedProductPage(version, new ProductPageDto(List.of(product), null)));
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Una fila modificada dentro de la página cambia el ETag
+        EntityVersion updated = new EntityVersion(1L, LocalDateTime.of(2024, 5, 1, 10, 0), 4L);
+        when(productService.getVersionedProductPage(null, 20, "id"))
+                .thenReturn(new VersionedProductPage(CollectionVersion.of(List.of(updated), null),
+                        new ProductPageDto(List.of(product), null)));
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1L));
+    }
+
     @Test
     public void testCreateProduct_Success() throws Exception {
         ProductDto productDto = new ProductDto();
@@ -141,6 +357,67 @@ public class ProductControllerTest {
         verify(productService, times(1)).createProduct(any(ProductDto.class));
     }
 
+    @Test
+    public void testCreateProducts_Batch() throws Exception {
+        ProductDto productDto = createValidProductDto();
+        ProductDto createdProduct = createUpdatedProductDto();
+
+        when(productService.createProducts(anyList())).thenReturn(Arrays.asList(createdProduct, createdProduct));
+
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(productDto, productDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(productService, times(1)).createProducts(anyList());
+    }
+
+    @Test
+    public void testCreateProducts_BatchValidationFailed() throws Exception {
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(new ProductDto()))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).createProducts(anyList());
+    }
+
+    @Test
+    public void testPatchProducts() throws Exception {
+        List<ProductPatchDto> patches = Arrays.asList(new ProductPatchDto(1L, new BigDecimal("9.99"), null),
+                new ProductPatchDto(2L, null, 5));
+
+        when(productBulkUpdateService.patchProducts(anyList())).thenReturn(new BulkPatchResultDto(Arrays.asList(
+                new ProductPatchResultDto(1L, ProductPatchResultDto.Status.UPDATED),
+                new ProductPatchResultDto(2L, ProductPatchResultDto.Status.NOT_FOUND))));
+
+        mockMvc.perform(patch("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patches)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    public void testPatchProducts_ValidationFailed() throws Exception {
+        // Sin precio ni stock
+        mockMvc.perform(patch("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":1}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(productBulkUpdateService, never()).patchProducts(anyList());
+    }
+
     @Test
     public void testUpdateProduct_Success() throws Exception {
         // Arrange: Configuramos los datos de entrada y salida esperados
@@ -192,6 +469,39 @@ public class ProductControllerTest {
         return updatedProduct;
     }
 
+    @Test
+    public void testReserveStock_Success() throws Exception {
+        when(productService.reserveStock(1L, 2)).thenReturn(new StockDto(1L, 8));
+
+        mockMvc.perform(post("/api/products/1/stock/reserve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(1L))
+                .andExpect(jsonPath("$.stock").value(8));
+    }
+
+    @Test
+    public void testReserveStock_Insufficient() throws Exception {
+        when(productService.reserveStock(1L, 20))
+                .thenThrow(new InsufficientStockException("Insufficient stock for product with ID 1"));
+
+        mockMvc.perform(post("/api/products/1/stock/reserve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":20}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void testReleaseStock_InvalidQuantity() throws Exception {
+        mockMvc.perform(post("/api/products/1/stock/release")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\":0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).releaseStock(any(), anyInt());
+    }
+
     @Test
     public void testDeleteProduct_Success() throws Exception {
         mockMvc.perform(delete("/api/products/1")
@@ -211,4 +521,8 @@ public class ProductControllerTest {
                 .content(objectMapper.writeValueAsString(invalidProductDto)))
                 .andExpect(status().isBadRequest());
     }
+
+    private static VersionedProductPage versioned(ProductPageDto page) {
+        return new VersionedProductPage(CollectionVersion.of(List.of(), page.getNextCursor()), page);
+    }
 }
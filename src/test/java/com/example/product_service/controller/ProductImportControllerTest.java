@@ -0,0 +1,74 @@
+package com.example.product_service.controller;
+
+import com.example.product_service.dto.ImportJobDto;
+import com.example.product_service.exception.GlobalExceptionHandler;
+import com.example.product_service.exception.ImportJobNotFoundException;
+import com.example.product_service.exception.ImportJobStateException;
+import com.example.product_service.service.ProductImportService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportControllerTest {
+
+    @Mock
+    private ProductImportService productImportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProductImportController(productImportService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    public void testStartImport() throws Exception {
+        ImportJobDto job = new ImportJobDto();
+        job.setId(7L);
+        job.setStatus("PENDING");
+        when(productImportService.startImport(eq("catalog.csv"), any(InputStream.class))).thenReturn(job);
+
+        mockMvc.perform(post("/api/products/imports")
+                .param("fileName", "catalog.csv")
+                .contentType(ProductImportController.CSV)
+                .content("name,description,price,stock,categoryId,imageUrls\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(7L))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    public void testGetImport_NotFound() throws Exception {
+        when(productImportService.getImport(1L))
+                .thenThrow(new ImportJobNotFoundException("Import job with ID 1 not found"));
+
+        mockMvc.perform(get("/api/products/imports/1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Import job with ID 1 not found"));
+    }
+
+    @Test
+    public void testResumeImport_AlreadyCompleted() throws Exception {
+        when(productImportService.resumeImport(1L))
+                .thenThrow(new ImportJobStateException("Import job with ID 1 is already completed"));
+
+        mockMvc.perform(post("/api/products/imports/1/resume"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.product_service.metrics;
+
+import com.example.product_service.model.Product;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RepositoryMetricsAspectTest {
+
+    interface SampleRepository extends Repository<Product, Long> {
+        List<Product> findAll();
+
+        Optional<Product> findById(Long id);
+
+        boolean existsById(Long id);
+
+        @Modifying
+        int deleteByName(String name);
+    }
+
+    private SimpleMeterRegistry meterRegistry;
+    private SampleRepository target;
+    private SampleRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = mock(SampleRepository.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(SampleRepository.class);
+        factory.addAspect(new RepositoryMetricsAspect(meterRegistry));
+        repository = factory.getProxy();
+    }
+
+    @Test
+    void testRecordsReturnedAndAffectedRows() {
+        when(target.findAll()).thenReturn(List.of(new Product(), new Product(), new Product()));
+        when(target.findById(1L)).thenReturn(Optional.empty());
+        when(target.deleteByName("x")).thenReturn(4);
+
+        repository.findAll();
+        repository.findAll();
+        repository.findById(1L);
+        repository.deleteByName("x");
+
+        DistributionSummary findAll = rows("findAll");
+        assertEquals(2, findAll.count());
+        assertEquals(6, findAll.totalAmount());
+        assertEquals(0, rows("findById").totalAmount());
+        assertEquals(4, rows("deleteByName").totalAmount());
+        assertEquals("SampleRepository", findAll.getId().getTag("repository"));
+    }
+
+    @Test
+    void testIgnoresResultsThatAreNotRows() {
+        when(target.existsById(1L)).thenReturn(true);
+
+        repository.existsById(1L);
+
+        assertNull(meterRegistry.find(RepositoryMetricsAspect.ROWS_METRIC).tag("method", "existsById").summary());
+    }
+
+    private DistributionSummary rows(String method) {
+        return meterRegistry.get(RepositoryMetricsAspect.ROWS_METRIC).tag("method", method).summary();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.product_service.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StartupTimingReporterTest {
+
+    @Test
+    void testBeanMillis_OnlySchemaBeanInstantiations() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        startup.start("spring.beans.instantiate").tag("beanName", "flywayInitializer").end();
+        startup.start("spring.beans.instantiate").tag("beanName", "&entityManagerFactory").end();
+        startup.start("spring.beans.instantiate").tag("beanName", "productService").end();
+        startup.start("spring.context.refresh").tag("beanName", "entityManagerFactory").end();
+
+        Map<String, Long> millis = StartupTimingReporter.beanMillis(startup.getBufferedTimeline(),
+                StartupTimingReporter.SCHEMA_BEANS);
+
+        assertEquals(Set.of("flywayInitializer", "entityManagerFactory"), millis.keySet());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.product_service.ratelimit;
+
+import com.example.product_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Lecturas: ráfaga de 2; escrituras: ráfaga de 1, ambas a 1 por segundo
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(
+            new RateLimiter(1, 2), new RateLimiter(1, 1), "X-API-Key", meterRegistry);
+
+    @Test
+    void testReadsAndWritesAreLimitedSeparately() {
+        assertTrue(handle(request("GET", "10.0.0.1", null)));
+        assertTrue(handle(request("GET", "10.0.0.1", null)));
+        assertTrue(handle(request("POST", "10.0.0.1", null)));
+
+        RateLimitExceededException read = assertThrows(RateLimitExceededException.class,
+                () -> handle(request("GET", "10.0.0.1", null)));
+        assertEquals(1, read.getRetryAfterSeconds());
+        assertThrows(RateLimitExceededException.class, () -> handle(request("PUT", "10.0.0.1", null)));
+
+        assertEquals(1, throttled("read"));
+        assertEquals(1, throttled("write"));
+    }
+
+    @Test
+    void testApiKeyTakesPrecedenceOverAddress() {
+        assertTrue(handle(request("POST", "10.0.0.1", "client-a")));
+        assertThrows(RateLimitExceededException.class, () -> handle(request("POST", "10.0.0.2", "client-a")));
+
+        // Misma IP, otra clave (o sin clave): cubetas distintas
+        assertTrue(handle(request("POST", "10.0.0.1", "client-b")));
+        assertTrue(handle(request("POST", "10.0.0.1", null)));
+    }
+
+    private boolean handle(MockHttpServletRequest request) {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    private double throttled(String access) {
+        return meterRegistry.get(RateLimitInterceptor.THROTTLED_METRIC).tag("access", access).counter().count();
+    }
+
+    private static MockHttpServletRequest request(String method, String address, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/products");
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.product_service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // 10 por segundo (un token cada 100 ms) con ráfaga de 3
+    private final RateLimiter limiter = new RateLimiter(10, 3);
+
+    @Test
+    void testAllowsBurstThenThrottles() {
+        long now = SECOND;
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("a", now));
+
+        long wait = limiter.tryAcquire("a", now);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        // Un rechazo no consume token: al vencer la espera se permite la siguiente
+        assertEquals(0, limiter.tryAcquire("a", now + wait));
+    }
+
+    @Test
+    void testRefillsAtConfiguredRate() {
+        long now = SECOND;
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a", now);
+        }
+
+        now += TimeUnit.MILLISECONDS.toNanos(200);
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("a", now) > 0);
+    }
+
+    @Test
+    void testClientsHaveIndependentBuckets() {
+        long now = SECOND;
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a", now);
+        }
+
+        assertTrue(limiter.tryAcquire("a", now) > 0);
+        assertEquals(0, limiter.tryAcquire("b", now));
+    }
+
+    @Test
+    void testEvictsOnlyRefilledBuckets() {
+        long now = SECOND;
+        limiter.tryAcquire("idle", now);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("busy", now + SECOND);
+        }
+
+        assertEquals(1, limiter.evictIdle(now + SECOND));
+        assertEquals(1, limiter.trackedClients());
+        assertTrue(limiter.tryAcquire("busy", now + SECOND) > 0);
+    }
+
+    @Test
+    void testConcurrentClientsNeverExceedBurst() throws InterruptedException {
+        long now = SECOND;
+        RateLimiter shared = new RateLimiter(1, 100);
+        int[] allowed = new int[8];
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int index = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    if (shared.tryAcquire("a", now) == 0) {
+                        allowed[index]++;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = 0;
+        for (int count : allowed) {
+            total += count;
+        }
+        assertEquals(100, total);
+    }
+}
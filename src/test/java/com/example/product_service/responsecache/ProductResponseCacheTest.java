@@ -0,0 +1,184 @@
+package com.example.product_service.responsecache;
+
+import com.example.product_service.dto.EntityVersion;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.VersionedProduct;
+import com.example.product_service.event.CategoryChangedEvent;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductResponseCacheTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger loads = new AtomicInteger();
+    private ProductResponseCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new ProductResponseCache(objectMapper, new SimpleMeterRegistry(), DataSize.ofKilobytes(64), true,
+                DataSize.ofKilobytes(2), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testWrite_EncodesOncePerVersion() throws IOException {
+        MockHttpServletResponse first = write(1L, 1L, 10, new MockHttpServletRequest());
+        MockHttpServletResponse second = write(1L, 1L, 10, new MockHttpServletRequest());
+
+        assertEquals(1, loads.get());
+        assertEquals("application/json", first.getContentType());
+        assertArrayEquals(objectMapper.writeValueAsBytes(product(1L, 10)), second.getContentAsByteArray());
+        assertEquals(second.getContentAsByteArray().length, second.getContentLength());
+        // Por debajo del mínimo de compresión no se guarda gzip
+        assertNull(second.getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        write(1L, 2L, 10, new MockHttpServletRequest());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testWrite_StoresUnderTheVersionActuallyLoaded() throws IOException {
+        // Se consultó la versión 2 pero la lectura devolvió la 1: la entrada queda bajo la 1 y la respuesta
+        // lleva su ETag, así que el siguiente pedido de la versión 2 vuelve a cargar
+        MockHttpServletResponse lagging = write(1L, 2L, 1L, 10, new MockHttpServletRequest());
+        assertEquals(etag(1L, 1L), lagging.getHeader(HttpHeaders.ETAG));
+        assertTrue(lagging.containsHeader(HttpHeaders.LAST_MODIFIED));
+
+        MockHttpServletResponse current = write(1L, 2L, 10, new MockHttpServletRequest());
+        assertEquals(etag(1L, 2L), current.getHeader(HttpHeaders.ETAG));
+        write(1L, 2L, 10, new MockHttpServletRequest());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testWrite_DeclinesWhenProductIsGone() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(cache.write(1L, etag(1L, 1L), Optional::empty, new MockHttpServletRequest(), response));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testWrite_ServesStoredGzipWhenAccepted() throws IOException {
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip");
+        MockHttpServletResponse compressed = write(1L, 1L, 200, gzipRequest);
+        MockHttpServletResponse plain = write(1L, 1L, 200, new MockHttpServletRequest());
+
+        assertEquals(1, loads.get());
+        assertEquals("gzip", compressed.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, compressed.getHeader(HttpHeaders.VARY));
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        // Cada codificación con su validador: el gzip no reutiliza el ETag fuerte de los bytes sin comprimir
+        assertEquals("W/" + etag(1L, 1L), compressed.getHeader(HttpHeaders.ETAG));
+        assertEquals(etag(1L, 1L), plain.getHeader(HttpHeaders.ETAG));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getContentAsByteArray()))) {
+            assertArrayEquals(plain.getContentAsByteArray(), in.readAllBytes());
+        }
+        assertTrue(compressed.getContentAsByteArray().length < plain.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testWrite_SkipsBinaryFormats() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(cache.write(1L, etag(1L, 1L), () -> Optional.of(versioned(1L, 1L, 1)), request, response));
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        assertTrue(ProductResponseCache.acceptsJson(null));
+        assertTrue(ProductResponseCache.acceptsJson("*/*"));
+        assertTrue(ProductResponseCache.acceptsJson("application/json, text/plain"));
+        assertFalse(ProductResponseCache.acceptsJson("application/x-jackson-smile, */*;q=0.1"));
+        assertFalse(ProductResponseCache.acceptsJson("text/html"));
+        assertFalse(ProductResponseCache.acceptsGzip("gzip;q=0, identity"));
+        assertTrue(ProductResponseCache.acceptsGzip("deflate, GZIP;q=0.5"));
+    }
+
+    @Test
+    void testBoundedByTotalBytes() throws IOException {
+        // Cada producto ronda 8 KB de JSON: en 64 KB caben unos pocos, no 50
+        for (long id = 1; id <= 50; id++) {
+            write(id, 1L, 150, new MockHttpServletRequest());
+        }
+        assertTrue(cache.weightedSize() <= DataSize.ofKilobytes(64).toBytes());
+        assertTrue(cache.weightedSize() > 0);
+    }
+
+    @Test
+    void testChangeEventsInvalidateEntries() throws IOException {
+        write(1L, 1L, 10, new MockHttpServletRequest());
+        write(2L, 1L, 10, new MockHttpServletRequest());
+        write(3L, 1L, 10, new MockHttpServletRequest());
+
+        cache.onProductChanged(ProductChangedEvent.deleted(1L));
+        cache.onInventoryChanged(ProductInventoryChangedEvent.stock(2L, 0));
+        write(1L, 1L, 10, new MockHttpServletRequest());
+        write(2L, 1L, 10, new MockHttpServletRequest());
+        write(3L, 1L, 10, new MockHttpServletRequest());
+        assertEquals(5, loads.get());
+
+        cache.onCategoryChanged(CategoryChangedEvent.deleted(1L));
+        write(3L, 1L, 10, new MockHttpServletRequest());
+        assertEquals(6, loads.get());
+    }
+
+    private MockHttpServletResponse write(Long id, long version, int images, MockHttpServletRequest request)
+            throws IOException {
+        return write(id, version, version, images, request);
+    }
+
+    // requested: versión consultada antes de cargar; loaded: la que devuelve la lectura del producto
+    private MockHttpServletResponse write(Long id, long requested, long loaded, int images,
+            MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(cache.write(id, etag(id, requested), () -> {
+            loads.incrementAndGet();
+            return Optional.of(versioned(id, loaded, images));
+        }, request, response));
+        return response;
+    }
+
+    private static String etag(Long id, long version) {
+        return new EntityVersion(id, MODIFIED, version).etag();
+    }
+
+    private static VersionedProduct versioned(Long id, long version, int images) {
+        return new VersionedProduct(new EntityVersion(id, MODIFIED, version), product(id, images));
+    }
+
+    private static ProductDto product(Long id, int images) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStock(3);
+        product.setCategoryId(1L);
+        product.setImageUrls(IntStream.range(0, images)
+                .mapToObj(i -> "https://cdn.example.com/images/products/" + id + "/" + i + ".jpg")
+                .toList());
+        return product;
+    }
+}
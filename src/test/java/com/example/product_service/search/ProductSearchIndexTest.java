@@ -0,0 +1,95 @@
+package com.example.product_service.search;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductSearchResultDto;
+import com.example.product_service.exception.InvalidPageRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        searchIndex = new ProductSearchIndex();
+        searchIndex.index(product(1L, "Máscara de pestañas", "Volumen extremo", "5.00", 10, 1L));
+        searchIndex.index(product(2L, "Labial mate", "Incluye máscara de regalo", "25.00", 0, 1L));
+        searchIndex.index(product(3L, "Crema facial", "Hidratante", "120.00", 3, 2L));
+    }
+
+    @Test
+    public void testSearch_MatchesAllTokensIgnoringAccentsAndCase() {
+        ProductSearchResultDto result = searchIndex.search(criteria("MASCARA", null, null));
+
+        assertEquals(2, result.getTotal());
+        // La coincidencia en el nombre va primero
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertTrue(ids(searchIndex.search(criteria("mascara labial", null, null))).contains(2L));
+        assertEquals(0, searchIndex.search(criteria("mascara crema", null, null)).getTotal());
+    }
+
+    @Test
+    public void testSearch_DisjunctiveFacets() {
+        ProductSearchResultDto result = searchIndex.search(criteria(null, 1L, true));
+
+        assertEquals(List.of(1L), ids(result));
+        // La faceta de categoría ignora el filtro de categoría, pero respeta el de stock
+        assertEquals(1L, result.getCategoryFacets().get(1L));
+        assertEquals(1L, result.getCategoryFacets().get(2L));
+        // La faceta de stock ignora el filtro de stock
+        assertEquals(1L, result.getStockFacets().get(ProductSearchIndex.IN_STOCK));
+        assertEquals(1L, result.getStockFacets().get(ProductSearchIndex.OUT_OF_STOCK));
+        assertEquals(1L, result.getPriceFacets().get("0-10"));
+        assertEquals(0L, result.getPriceFacets().get("10-50"));
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        searchIndex.index(product(1L, "Rubor compacto", "Tono durazno", "5.00", 10, 1L));
+        searchIndex.updateInventory(2L, null, 8);
+        searchIndex.remove(3L);
+
+        assertEquals(List.of(2L), ids(searchIndex.search(criteria("mascara", null, null))));
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search(criteria(null, null, true))));
+        assertEquals(0, searchIndex.search(criteria("crema", null, null)).getTotal());
+
+        searchIndex.removeCategory(1L);
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    public void testSearch_PagesResults() {
+        ProductSearchResultDto result = searchIndex.search(new ProductSearchCriteria(null, null, null, null, null, 1, 2));
+
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of(3L), ids(result));
+        assertThrows(InvalidPageRequestException.class,
+                () -> searchIndex.search(new ProductSearchCriteria(null, null, null, null, null, -1, 2)));
+    }
+
+    private static ProductSearchCriteria criteria(String text, Long categoryId, Boolean inStock) {
+        return new ProductSearchCriteria(text, categoryId, null, null, inStock, 0, 20);
+    }
+
+    private static List<Long> ids(ProductSearchResultDto result) {
+        return result.getItems().stream().map(ProductDto::getId).toList();
+    }
+
+    private static ProductDto product(Long id, String name, String description, String price, int stock,
+            Long categoryId) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        product.setCategoryId(categoryId);
+        return product;
+    }
+}
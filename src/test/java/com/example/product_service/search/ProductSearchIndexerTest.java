@@ -0,0 +1,78 @@
+package com.example.product_service.search;
+
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductSearchResultDto;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.example.product_service.service.ProductExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ProductSearchIndexerTest {
+
+    private ProductSearchIndex searchIndex;
+    private ProductExportService productExportService;
+    private ProductSearchIndexer indexer;
+
+    @BeforeEach
+    public void setUp() {
+        searchIndex = new ProductSearchIndex();
+        productExportService = mock(ProductExportService.class);
+        indexer = new ProductSearchIndexer(searchIndex, productExportService);
+    }
+
+    @Test
+    public void testRebuild_ChangesCommittedDuringLoadWinOverStreamedRows() {
+        when(productExportService.forEachProduct(any())).thenAnswer(invocation -> {
+            Consumer<ProductDto> consumer = invocation.getArgument(0);
+            // Commits que llegan mientras la carga todavía entrega filas leídas antes
+            indexer.onProductChanged(ProductChangedEvent.deleted(2L));
+            indexer.onProductChanged(ProductChangedEvent.updated(product(1L, "Labial nuevo", "5.00", 3)));
+            indexer.onInventoryChanged(new ProductInventoryChangedEvent(3L, new BigDecimal("7.00"), 0));
+            consumer.accept(product(1L, "Labial viejo", "5.00", 3));
+            consumer.accept(product(2L, "Rubor", "8.00", 4));
+            consumer.accept(product(3L, "Crema", "9.00", 6));
+            return 3L;
+        });
+
+        indexer.rebuild();
+
+        // El borrado no deja un producto fantasma ni la copia vieja pisa la actualización
+        assertEquals(2, searchIndex.size());
+        assertEquals(List.of(1L), ids(searchIndex.search(criteria("nuevo"))));
+        assertEquals(0, searchIndex.search(criteria("viejo")).getTotal());
+        ProductDto crema = searchIndex.search(criteria("crema")).getItems().get(0);
+        assertEquals(new BigDecimal("7.00"), crema.getPrice());
+        assertEquals(0, crema.getStock());
+
+        // Terminada la carga, los cambios se aplican directamente
+        indexer.onProductChanged(ProductChangedEvent.deleted(1L));
+        assertEquals(List.of(3L), ids(searchIndex.search(criteria(null))));
+    }
+
+    private static ProductSearchCriteria criteria(String text) {
+        return new ProductSearchCriteria(text, null, null, null, null, 0, 20);
+    }
+
+    private static List<Long> ids(ProductSearchResultDto result) {
+        return result.getItems().stream().map(ProductDto::getId).toList();
+    }
+
+    private static ProductDto product(Long id, String name, String price, int stock) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        product.setCategoryId(1L);
+        return product;
+    }
+}
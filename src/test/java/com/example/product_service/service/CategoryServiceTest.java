@@ -1,9 +1,11 @@
 package com.example.product_service.service;
 
 import com.example.product_service.dto.CategoryDto;
+import com.example.product_service.event.CategoryChangedEvent;
 import com.example.product_service.exception.CategoryNotFoundException;
 import com.example.product_service.model.Category;
 import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,10 +31,16 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        categoryService = new CategoryService(categoryRepository);
+        categoryService = new CategoryService(categoryRepository, productRepository, eventPublisher);
     }
 
     @Test
@@ -150,7 +159,7 @@ public class CategoryServiceTest {
         updatedCategory.setName("Categoría Actualizada");
         updatedCategory.setDescription("Descripción Actualizada");
 
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(existingCategory));
+        when(categoryRepository.findLockedById(1L)).thenReturn(Optional.of(existingCategory));
         when(categoryRepository.save(existingCategory)).thenReturn(updatedCategory);
 
         // Ejecutar método
@@ -160,7 +169,7 @@ public class CategoryServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertEquals("Categoría Actualizada", result.getName());
-        verify(categoryRepository, times(1)).findById(1L);
+        verify(categoryRepository, times(1)).findLockedById(1L);
         verify(categoryRepository, times(1)).save(existingCategory);
     }
 
@@ -169,7 +178,7 @@ public class CategoryServiceTest {
         // Preparar datos
         CategoryDto categoryDto = new CategoryDto();
 
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(categoryRepository.findLockedById(1L)).thenReturn(Optional.empty());
 
         // Ejecutar y verificar excepción
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -177,27 +186,30 @@ public class CategoryServiceTest {
         });
 
         assertEquals("Category with ID 1 not found", exception.getMessage());
-        verify(categoryRepository, times(1)).findById(1L);
+        verify(categoryRepository, times(1)).findLockedById(1L);
         verify(categoryRepository, never()).save(any(Category.class));
     }
 
     @Test
     public void testDeleteCategory_Success() {
         // Preparar datos
-        when(categoryRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.deleteCategoryById(1L)).thenReturn(1);
 
         // Ejecutar método
         categoryService.deleteCategory(1L);
 
-        // Verificar resultados
-        verify(categoryRepository, times(1)).existsById(1L);
-        verify(categoryRepository, times(1)).deleteById(1L);
+        // Verificar resultados: borrado en bloque, sin cargar la categoría ni sus productos
+        verify(productRepository, times(1)).deleteByCategoryId(1L);
+        verify(categoryRepository, times(1)).deleteCategoryById(1L);
+        verify(categoryRepository, never()).findById(anyLong());
+        verify(categoryRepository, never()).deleteById(anyLong());
+        verify(eventPublisher).publishEvent(CategoryChangedEvent.deleted(1L));
     }
 
     @Test
     public void testDeleteCategory_NotFound() {
         // Preparar datos
-        when(categoryRepository.existsById(1L)).thenReturn(false);
+        when(categoryRepository.deleteCategoryById(1L)).thenReturn(0);
 
         // Ejecutar y verificar excepción
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -205,7 +217,6 @@ public class CategoryServiceTest {
         });
 
         assertEquals("Category with ID 1 not found", exception.getMessage());
-        verify(categoryRepository, times(1)).existsById(1L);
-        verify(categoryRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
     }
 }
@@ -0,0 +1,64 @@
+package com.example.product_service.service;
+
+import com.example.product_service.dto.BulkPatchResultDto;
+import com.example.product_service.dto.ProductPatchDto;
+import com.example.product_service.dto.ProductPatchResultDto;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductBulkUpdateServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @BeforeEach
+    public void setUp() {
+        productBulkUpdateService = new ProductBulkUpdateService(jdbcTemplate, eventPublisher, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPatchProducts_ReportsOutcomePerRow() {
+        List<ProductPatchDto> patches = List.of(
+                new ProductPatchDto(1L, new BigDecimal("9.99"), null),
+                new ProductPatchDto(2L, null, 5),
+                new ProductPatchDto(3L, new BigDecimal("1.50"), 0));
+        // Dos lotes de tamaño 2: la fila 2 no existe y el driver no informa el conteo de la fila 3
+        when(jdbcTemplate.batchUpdate(eq(ProductBulkUpdateService.UPDATE_SQL), eq(patches), eq(2),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] { { 1, 0 }, { Statement.SUCCESS_NO_INFO } });
+
+        BulkPatchResultDto result = productBulkUpdateService.patchProducts(patches);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getNotFound());
+        assertEquals(List.of(ProductPatchResultDto.Status.UPDATED, ProductPatchResultDto.Status.NOT_FOUND,
+                ProductPatchResultDto.Status.UNKNOWN),
+                result.getResults().stream().map(ProductPatchResultDto::getStatus).toList());
+        // Solo la fila confirmada como actualizada publica evento
+        verify(eventPublisher).publishEvent(new ProductInventoryChangedEvent(1L, new BigDecimal("9.99"), null));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+}
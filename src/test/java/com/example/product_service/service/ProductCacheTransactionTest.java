@@ -0,0 +1,67 @@
+package com.example.product_service.service;
+
+import com.example.product_service.config.CacheConfig;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.model.Category;
+import com.example.product_service.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Caché real de Caffeine contra H2: una lectura concurrente con una escritura sin confirmar no debe dejar
+// cacheada la fila anterior después del commit
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import({ProductService.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductCacheTransactionTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testReadDuringUncommittedUpdate_DoesNotCacheOldRowPastCommit() {
+        Category category = new Category();
+        category.setName("Cache");
+        Long categoryId = categoryRepository.save(category).getId();
+        Long id = productService.createProduct(product("Rubor", categoryId)).getId();
+        assertEquals("Rubor", productService.getProductById(id).getName());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.updateProduct(id, product("Rubor mate", categoryId));
+            // Otro hilo lee mientras la actualización sigue sin confirmar: ve la versión confirmada
+            ProductDto during = CompletableFuture.supplyAsync(() -> productService.getProductById(id)).join();
+            assertEquals("Rubor", during.getName());
+        });
+
+        assertEquals("Rubor mate", productService.getProductById(id).getName());
+    }
+
+    private static ProductDto product(String name, Long categoryId) {
+        ProductDto product = new ProductDto();
+        product.setName(name);
+        product.setPrice(new BigDecimal("9.90"));
+        product.setStock(3);
+        product.setCategoryId(categoryId);
+        product.setImageUrls(List.of("http://example.com/rubor.jpg"));
+        return product;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.product_service.service;
+
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    public void setUp() {
+        productExportService = new ProductExportService(productRepository, entityManager, new ObjectMapper());
+    }
+
+    @Test
+    void testExportProducts_WritesOneLinePerProductAndDetaches() throws Exception {
+        Product product1 = createProduct(1L, "Product1");
+        Product product2 = createProduct(2L, "Product2");
+        when(productRepository.streamAllOrderedById()).thenReturn(Stream.of(product1, product2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = productExportService.exportProducts(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"name\":\"Product1\""));
+        assertTrue(lines[1].startsWith("{\"id\":2,\"name\":\"Product2\""));
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        verify(entityManager).detach(product1);
+        verify(entityManager).detach(product2);
+    }
+
+    @Test
+    void testExportProducts_EmptyCatalog() throws Exception {
+        when(productRepository.streamAllOrderedById()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, productExportService.exportProducts(out));
+        assertEquals(0, out.size());
+        verifyNoInteractions(entityManager);
+    }
+
+    private Product createProduct(Long id, String name) {
+        Category category = new Category();
+        category.setId(10L);
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStock(3);
+        product.setCategory(category);
+        product.setImageUrls(List.of("http://example.com/" + id + ".jpg"));
+        return product;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.product_service.service;
+
+import com.example.product_service.dto.ImportJobDto;
+import com.example.product_service.exception.ImportJobStateException;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.model.ProductImportJob;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductImportJobRepository;
+import com.example.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Importación real contra H2: cada bloque se confirma con su punto de control (sin transacción de prueba)
+@DataJpaTest(showSql = false, properties = "product.import.chunk-size=2")
+@ActiveProfiles("h2")
+@Import({ProductImportService.class, ProductImportServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ProductImportServiceTest {
+
+    private static final String HEADER = "name,description,price,stock,categoryId,imageUrls\n";
+
+    @TempDir
+    static Path importDirectory;
+
+    @DynamicPropertySource
+    static void importProperties(DynamicPropertyRegistry registry) {
+        registry.add("product.import.directory", () -> importDirectory.toString());
+    }
+
+    // El executor síncrono deja el trabajo terminado al volver de startImport/resumeImport
+    @TestConfiguration
+    static class Config {
+        @Bean
+        TaskExecutor taskExecutor() {
+            return new SyncTaskExecutor();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductImportJobRepository jobRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void testImport_CommitsValidRowsAndRejectsInvalidOnes() throws Exception {
+        Long categoryId = createCategory();
+        String csv = HEADER + """
+                Rubor,Tono durazno,12.50,10,%1$d,http://example.com/a.jpg|http://example.com/b.jpg
+                "Labial, mate",,8.00,5,%1$d,http://example.com/c.jpg
+                Sin precio,,,5,%1$d,http://example.com/d.jpg
+                Sin categoria,,3.00,1,999999,http://example.com/e.jpg
+                Crema,Hidratante,25.00,0,%1$d,http://example.com/f.jpg
+                """.formatted(categoryId);
+
+        ImportJobDto job = productImportService.startImport("catalog.csv", content(csv));
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(3, job.getImportedRows());
+        assertEquals(2, job.getRejectedRows());
+        List<Product> products = productRepository.findAll(Sort.by("id"));
+        assertEquals(List.of("Rubor", "Labial, mate", "Crema"), products.stream().map(Product::getName).toList());
+        assertEquals(2, productRepository.findWithImagesById(products.get(0).getId()).orElseThrow()
+                .getImageUrls().size());
+        // La copia local se elimina al completar
+        assertFalse(Files.exists(Path.of(jobRepository.findById(job.getId()).orElseThrow().getFilePath())));
+    }
+
+    @Test
+    void testResume_SkipsRowsCommittedBefore() throws Exception {
+        Long categoryId = createCategory();
+        Path file = importDirectory.resolve("interrupted.csv");
+        Files.writeString(file, HEADER + """
+                Uno,,1.00,1,%1$d,http://example.com/1.jpg
+                Dos,,2.00,1,%1$d,http://example.com/2.jpg
+                Tres,,3.00,1,%1$d,http://example.com/3.jpg
+                Cuatro,,4.00,1,%1$d,http://example.com/4.jpg
+                """.formatted(categoryId));
+        // Trabajo que falló después de confirmar las dos primeras filas
+        ProductImportJob interrupted = new ProductImportJob();
+        interrupted.setFileName("interrupted.csv");
+        interrupted.setFilePath(file.toString());
+        interrupted.setStatus(ProductImportJob.Status.FAILED);
+        interrupted.setProcessedRows(2);
+        interrupted.setImportedRows(2);
+        Long jobId = jobRepository.save(interrupted).getId();
+
+        ImportJobDto job = productImportService.resumeImport(jobId);
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(4, job.getProcessedRows());
+        assertEquals(4, job.getImportedRows());
+        assertEquals(List.of("Tres", "Cuatro"),
+                productRepository.findAll(Sort.by("id")).stream().map(Product::getName).toList());
+        assertThrows(ImportJobStateException.class, () -> productImportService.resumeImport(jobId));
+    }
+
+    @Test
+    void testImport_MissingColumnsFailsTheJob() throws Exception {
+        ImportJobDto job = productImportService.startImport("bad.csv", content("name,price\nRubor,12.50\n"));
+
+        assertEquals("FAILED", job.getStatus());
+        assertTrue(job.getLastError().contains("categoryId"));
+        assertEquals(0, productRepository.count());
+    }
+
+    private Long createCategory() {
+        Category category = new Category();
+        category.setName("Imports");
+        return categoryRepository.save(category).getId();
+    }
+
+    private static InputStream content(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
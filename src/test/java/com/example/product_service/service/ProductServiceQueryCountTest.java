@@ -0,0 +1,318 @@
+package com.example.product_service.service;
+
+import com.example.product_service.dto.BulkPatchResultDto;
+import com.example.product_service.dto.CategoryStatsDto;
+import com.example.product_service.dto.CollectionVersion;
+import com.example.product_service.dto.EntityVersion;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductLookupDto;
+import com.example.product_service.dto.ProductPageDto;
+import com.example.product_service.dto.ProductPatchDto;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Verifica que listados y operaciones en bloque usen un número fijo de sentencias (sin N+1)
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import({ProductService.class, CategoryService.class, ProductBulkUpdateService.class})
+public class ProductServiceQueryCountTest {
+
+    private static final int PRODUCT_COUNT = 1000;
+    private static final int GALLERY_SIZE = 24;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        Category category = new Category();
+        category.setName("Category1");
+        categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = new Product();
+            product.setName("Product" + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(5);
+            product.setCategory(category);
+            product.setImageUrls(new ArrayList<>(List.of("http://example.com/" + i + "-a.jpg",
+                    "http://example.com/" + i + "-b.jpg")));
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetProductPage_TwoStatementsPerPage() {
+        String cursor = null;
+        int pages = 0;
+        int total = 0;
+        do {
+            entityManager.clear();
+            statistics.clear();
+
+            // El validador de la página sale de las mismas filas: ninguna consulta extra sobre el catálogo
+            ProductPageDto page = productService.getVersionedProductPage(cursor, ProductService.MAX_PAGE_SIZE, "id")
+                    .page();
+
+            assertTrue(page.getItems().stream().allMatch(product -> product.getImageUrls().size() == 2));
+            assertEquals(2, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityStatistics(Category.class.getName()).getLoadCount());
+            cursor = page.getNextCursor();
+            total += page.getSize();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(PRODUCT_COUNT, total);
+        assertEquals(PRODUCT_COUNT / ProductService.MAX_PAGE_SIZE, pages);
+    }
+
+    @Test
+    void testFindProductVersion_ReadsValidatorsWithoutLoadingProduct() {
+        Long id = productRepository.findAllByOrderByIdAsc(PageRequest.of(0, 1)).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        EntityVersion version = productService.findProductVersion(id).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(version.lastModifiedMillis() > 0);
+        CollectionVersion pageVersion = productService.getVersionedProductPage(null, 10, "id").version();
+        assertEquals(pageVersion, productService.getVersionedProductPage(null, 10, "id").version());
+
+        // Una reserva de stock cambia la versión y, por lo tanto, el ETag del producto y de su página
+        productRepository.reserveStock(id, 1, LocalDateTime.now().plusSeconds(1));
+        assertNotEquals(version.etag(), productService.findProductVersion(id).orElseThrow().etag());
+        assertNotEquals(pageVersion.etag(), productService.getVersionedProductPage(null, 10, "id").version().etag());
+    }
+
+    @Test
+    void testGetProductsByIds_OneStatementPerChunkInRequestOrder() {
+        List<Long> existing = productRepository.findAllByOrderByIdAsc(PageRequest.of(0, 240)).stream()
+                .map(Product::getId)
+                .toList();
+        List<Long> ids = new ArrayList<>(existing);
+        Collections.reverse(ids);
+        ids.add(1, -1L);
+        ids.add(existing.get(0));
+        ids.add(-2L);
+        entityManager.clear();
+        statistics.clear();
+
+        ProductLookupDto lookup = productService.getProductsByIds(ids);
+
+        // 242 ids distintos en tramos de 100: tres consultas, imágenes incluidas y sin cargar categorías
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Category.class.getName()).getLoadCount());
+        assertEquals(existing.size(), lookup.getProducts().size());
+        assertEquals(existing.get(existing.size() - 1), lookup.getProducts().get(0).getId());
+        assertEquals(existing.get(0), lookup.getProducts().get(existing.size() - 1).getId());
+        assertTrue(lookup.getProducts().stream().allMatch(product -> product.getImageUrls().size() == 2));
+        assertEquals(List.of(-1L, -2L), lookup.getMissingIds());
+    }
+
+    @Test
+    void testCategoryStats_SingleGroupedStatement() {
+        Category empty = new Category();
+        empty.setName("Empty");
+        categoryRepository.save(empty);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<CategoryStatsDto> stats = categoryRepository.findCategoryStats();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, stats.size());
+        CategoryStatsDto category = stats.get(0);
+        assertEquals("Category1", category.getCategoryName());
+        assertEquals(PRODUCT_COUNT, category.getProductCount());
+        assertEquals(PRODUCT_COUNT * 5L, category.getTotalStock());
+        assertEquals(0, new BigDecimal("50000.00").compareTo(category.getStockValue()));
+        assertEquals(0, stats.get(1).getProductCount());
+        assertEquals(BigDecimal.ZERO, stats.get(1).getStockValue());
+    }
+
+    @Test
+    void testDeleteCategory_SetBasedWithoutLoadingProducts() {
+        Long categoryId = categoryRepository.findAll().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        categoryService.deleteCategory(categoryId);
+
+        // Imágenes, productos y categoría: una sentencia cada uno
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, productRepository.count());
+        assertEquals(0, ((Number) entityManager.createNativeQuery("select count(*) from product_images")
+                .getSingleResult()).intValue());
+        assertFalse(categoryRepository.existsById(categoryId));
+    }
+
+    @Test
+    void testPatchProducts_UpdatesColumnsWithoutLoadingEntities() {
+        List<Product> firstTwo = productRepository.findAllByOrderByIdAsc(PageRequest.of(0, 2));
+        entityManager.clear();
+        statistics.clear();
+
+        BulkPatchResultDto result = productBulkUpdateService.patchProducts(List.of(
+                new ProductPatchDto(firstTwo.get(0).getId(), new BigDecimal("12.50"), null),
+                new ProductPatchDto(firstTwo.get(1).getId(), null, 0),
+                new ProductPatchDto(-1L, null, 1)));
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(1, result.getNotFound());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        Product priced = productRepository.findById(firstTwo.get(0).getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("12.50").compareTo(priced.getPrice()));
+        assertEquals(5, priced.getStock());
+        assertNotNull(priced.getUpdatedAt());
+        Product restocked = productRepository.findById(firstTwo.get(1).getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("10.00").compareTo(restocked.getPrice()));
+        assertEquals(0, restocked.getStock());
+        assertTrue(restocked.getVersion() > firstTwo.get(1).getVersion());
+    }
+
+    @Test
+    void testUpdateProduct_WritesOnlyChangedImageRows() {
+        Category category = categoryRepository.findAll().get(0);
+        List<String> gallery = new ArrayList<>();
+        for (int i = 0; i < GALLERY_SIZE; i++) {
+            gallery.add("http://example.com/gallery-" + i + ".jpg");
+        }
+        Product product = new Product();
+        product.setName("Gallery");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(5);
+        product.setCategory(category);
+        product.setImageUrls(new ArrayList<>(gallery));
+        Long id = productRepository.save(product).getId();
+        entityManager.flush();
+
+        // Sin cambios: producto, imágenes y categoría se leen, pero no se escribe nada
+        updateGallery(id, category.getId(), gallery);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionUpdateCount());
+
+        // Una URL cambiada y tres nuevas: un UPDATE de fila y un lote de INSERT, más la versión del producto
+        List<String> edited = new ArrayList<>(gallery);
+        edited.set(10, "http://example.com/gallery-10-v2.jpg");
+        edited.addAll(List.of("http://example.com/extra-1.jpg", "http://example.com/extra-2.jpg",
+                "http://example.com/extra-3.jpg"));
+        updateGallery(id, category.getId(), edited);
+        assertEquals(6, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getCollectionUpdateCount());
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(0, statistics.getCollectionRemoveCount());
+
+        // Cinco URLs menos al final: un lote de DELETE
+        List<String> trimmed = new ArrayList<>(edited.subList(0, edited.size() - 5));
+        updateGallery(id, category.getId(), trimmed);
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionRecreateCount());
+
+        entityManager.clear();
+        assertEquals(trimmed, productRepository.findById(id).orElseThrow().getImageUrls());
+    }
+
+    @Test
+    void testUpdateProduct_FrontRemovalShiftsEveryFollowingImageRow() {
+        Category category = categoryRepository.findAll().get(0);
+        List<String> gallery = new ArrayList<>();
+        for (int i = 0; i < GALLERY_SIZE; i++) {
+            gallery.add("http://example.com/gallery-" + i + ".jpg");
+        }
+        Product product = new Product();
+        product.setName("Gallery");
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(5);
+        product.setCategory(category);
+        product.setImageUrls(new ArrayList<>(gallery));
+        Long id = productRepository.save(product).getId();
+        entityManager.flush();
+
+        // Sin la primera URL: las 23 restantes suben una posición (un lote de 23 UPDATE) y se borra la última
+        // fila; no se recrea la colección, pero tampoco es más barato que reescribirla
+        List<String> withoutFirst = new ArrayList<>(gallery.subList(1, gallery.size()));
+        updateGallery(id, category.getId(), withoutFirst);
+        assertEquals(6, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getCollectionUpdateCount());
+        assertEquals(0, statistics.getCollectionRecreateCount());
+
+        entityManager.clear();
+        assertEquals(withoutFirst, productRepository.findById(id).orElseThrow().getImageUrls());
+        for (int i = 0; i < withoutFirst.size(); i++) {
+            assertEquals(withoutFirst.get(i), entityManager.createNativeQuery(
+                    "select image_url from product_images where product_id = :id and image_order = :position")
+                    .setParameter("id", id)
+                    .setParameter("position", i)
+                    .getSingleResult());
+        }
+    }
+
+    private void updateGallery(Long id, Long categoryId, List<String> imageUrls) {
+        entityManager.clear();
+        statistics.clear();
+
+        ProductDto productDto = new ProductDto();
+        productDto.setName("Gallery");
+        productDto.setPrice(new BigDecimal("10.00"));
+        productDto.setStock(5);
+        productDto.setCategoryId(categoryId);
+        productDto.setImageUrls(imageUrls);
+        productService.updateProduct(id, productDto);
+        entityManager.flush();
+    }
+}
@@ -2,6 +2,13 @@
 package com.example.product_service.service;
 
 import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.ProductPageDto;
+import com.example.product_service.dto.StockDto;
+import com.example.product_service.event.ProductChangedEvent;
+import com.example.product_service.event.ProductInventoryChangedEvent;
+import com.example.product_service.exception.CategoryNotFoundException;
+import com.example.product_service.exception.InsufficientStockException;
+import com.example.product_service.exception.InvalidPageRequestException;
 import com.example.product_service.exception.ProductNotFoundException;
 import com.example.product_service.model.Category;
 import com.example.product_service.model.Product;
@@ -10,24 +17,33 @@ import com.example.product_service.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceTest {
 
-    @InjectMocks
     private ProductService productService;
 
     @Mock
@@ -36,41 +52,83 @@ public class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
 public void setUp() {
     MockitoAnnotations.openMocks(this);
-    productService = new ProductService(productRepository, categoryRepository);
+    productService = new ProductService(productRepository, categoryRepository, eventPublisher, Optional.empty(), 5000);
 }
 
     @Test
-    void testGetAllProducts() {
-        // Crear categorías y productos mock
-        Category category1 = new Category();
-        category1.setId(1L);
-        category1.setName("Category1");
-
-        Product product1 = new Product();
-        product1.setId(1L);
-        product1.setName("Product1");
-        product1.setPrice(new BigDecimal("10.0"));
-        product1.setCategory(category1);
-
-        Product product2 = new Product();
-        product2.setId(2L);
-        product2.setName("Product2");
-        product2.setPrice(new BigDecimal("20.0"));
-        product2.setCategory(category1);
-
-        // Mockear la lista de productos
-        when(productRepository.findAll()).thenReturn(List.of(product1, product2));
-
-        // Llamar al método de servicio
-        List<ProductDto> products = productService.getAllProducts();
-
-        // Validaciones
-        assertNotNull(products);
-        assertEquals(2, products.size());
-        verify(productRepository, times(1)).findAll();
+    void testGetProductPage_FirstPageWithNextCursor() {
+        List<Product> products = createProducts(1L, 4);
+        when(productRepository.findAllByOrderByIdAsc(PageRequest.of(0, 4))).thenReturn(products);
+
+        ProductPageDto page = productService.getProductPage(null, 3, "id");
+
+        assertEquals(3, page.getSize());
+        assertEquals(3L, page.getItems().get(2).getId());
+        assertNotNull(page.getNextCursor());
+
+        // El cursor devuelto continúa después del último producto entregado
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(3L, PageRequest.of(0, 4)))
+                .thenReturn(createProducts(4L, 1));
+
+        ProductPageDto nextPage = productService.getProductPage(page.getNextCursor(), 3, "id");
+
+        assertEquals(1, nextPage.getSize());
+        assertEquals(4L, nextPage.getItems().get(0).getId());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void testGetProductPage_SizeIsCapped() {
+        when(productRepository.findAllByOrderByIdAsc(any())).thenReturn(new ArrayList<>());
+
+        productService.getProductPage(null, 1_000_000, "id");
+
+        verify(productRepository).findAllByOrderByIdAsc(PageRequest.of(0, ProductService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testGetProductPage_PriceCursor() {
+        List<Product> products = createProducts(1L, 2);
+        products.get(0).setPrice(new BigDecimal("5.00"));
+        products.get(1).setPrice(new BigDecimal("7.50"));
+        when(productRepository.findFirstPageByPrice(PageRequest.of(0, 2))).thenReturn(products);
+
+        ProductPageDto page = productService.getProductPage(null, 1, "price");
+
+        when(productRepository.findPageAfterPrice(new BigDecimal("5.00"), 1L, PageRequest.of(0, 2)))
+                .thenReturn(new ArrayList<>());
+        productService.getProductPage(page.getNextCursor(), 1, "price");
+
+        verify(productRepository).findPageAfterPrice(new BigDecimal("5.00"), 1L, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void testGetProductPage_InvalidRequests() {
+        assertThrows(InvalidPageRequestException.class, () -> productService.getProductPage(null, 0, "id"));
+        assertThrows(InvalidPageRequestException.class, () -> productService.getProductPage(null, 10, "name"));
+        assertThrows(InvalidPageRequestException.class, () -> productService.getProductPage("%%%", 10, "id"));
+        verifyNoInteractions(productRepository);
+    }
+
+    private List<Product> createProducts(long firstId, int count) {
+        Category category = new Category();
+        category.setId(1L);
+        List<Product> products = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product" + id);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setCategory(category);
+            products.add(product);
+        }
+        return products;
     }
 
     @Test
@@ -89,7 +147,7 @@ void testGetProductById_Success() {
     mockProduct.setCategory(mockCategory); // Asignar la categoría
 
     // Mockear la llamada al repositorio
-    when(productRepository.findById(1L)).thenReturn(Optional.of(mockProduct));
+    when(productRepository.findWithImagesById(1L)).thenReturn(Optional.of(mockProduct));
 
     // Llamada al método de servicio
     ProductDto product = productService.getProductById(1L);
@@ -100,13 +158,13 @@ void testGetProductById_Success() {
     assertEquals(new BigDecimal("10.0"), product.getPrice()); // Comparación con BigDecimal
 
     // Verificar interacción con el mock
-    verify(productRepository, times(1)).findById(1L);
+    verify(productRepository, times(1)).findWithImagesById(1L);
 }
 
     @Test
     public void testGetProductById_NotFound() {
         // Preparar datos
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findWithImagesById(1L)).thenReturn(Optional.empty());
 
         // Ejecutar y verificar excepción
         ProductNotFoundException exception = assertThrows(ProductNotFoundException.class, () -> {
@@ -114,7 +172,7 @@ void testGetProductById_Success() {
         });
 
         assertEquals("Product with ID 1 not found", exception.getMessage());
-        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).findWithImagesById(1L);
     }
 
     @Test
@@ -145,6 +203,23 @@ void testGetProductById_Success() {
         verify(productRepository, times(1)).save(any(Product.class));
     }
 
+    @Test
+    public void testCreateProduct_IgnoresClientId() {
+        ProductDto productDto = new ProductDto();
+        productDto.setId(7L);
+        productDto.setName("Nuevo Producto");
+        productDto.setCategoryId(1L);
+        Category category = new Category();
+        category.setId(1L);
+
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.createProduct(productDto);
+
+        verify(productRepository).save(argThat(product -> product.getId() == null));
+    }
+
     @Test
     public void testCreateProduct_CategoryNotFound() {
         // Preparar datos
@@ -163,6 +238,48 @@ void testGetProductById_Success() {
         verify(productRepository, never()).save(any(Product.class));
     }
 
+    @Test
+    public void testCreateProducts_ResolvesCategoriesOnce() {
+        Category category1 = new Category();
+        category1.setId(1L);
+        Category category2 = new Category();
+        category2.setId(2L);
+
+        List<ProductDto> productDtos = new ArrayList<>();
+        for (long categoryId : new long[] {1L, 2L, 1L}) {
+            ProductDto productDto = new ProductDto();
+            productDto.setName("Producto " + productDtos.size());
+            productDto.setCategoryId(categoryId);
+            productDto.setImageUrls(List.of("url"));
+            productDtos.add(productDto);
+        }
+
+        when(categoryRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(category1, category2));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ProductDto> result = productService.createProducts(productDtos);
+
+        assertEquals(3, result.size());
+        assertEquals(2L, result.get(1).getCategoryId());
+        verify(categoryRepository, times(1)).findAllById(Set.of(1L, 2L));
+        verify(categoryRepository, never()).findById(anyLong());
+        verify(productRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    public void testCreateProducts_CategoryNotFound() {
+        ProductDto productDto = new ProductDto();
+        productDto.setCategoryId(9L);
+
+        when(categoryRepository.findAllById(Set.of(9L))).thenReturn(List.of());
+
+        CategoryNotFoundException exception = assertThrows(CategoryNotFoundException.class,
+                () -> productService.createProducts(List.of(productDto)));
+
+        assertEquals("Category with ID 9 not found", exception.getMessage());
+        verify(productRepository, never()).saveAll(anyList());
+    }
+
     @Test
     public void testUpdateProduct_Success() {
         // Preparar datos
@@ -179,7 +296,7 @@ void testGetProductById_Success() {
         category.setId(1L);
         category.setName("Categoría 1");
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findLockedById(1L)).thenReturn(Optional.of(existingProduct));
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
         when(productRepository.save(any(Product.class))).thenReturn(existingProduct);
 
@@ -189,7 +306,7 @@ void testGetProductById_Success() {
         // Verificar resultados
         assertNotNull(result);
         assertEquals("Producto Actualizado", result.getName());
-        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).findLockedById(1L);
         verify(categoryRepository, times(1)).findById(1L);
         verify(productRepository, times(1)).save(existingProduct);
     }
@@ -199,7 +316,7 @@ void testGetProductById_Success() {
         // Preparar datos
         ProductDto productDto = new ProductDto();
 
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findLockedById(1L)).thenReturn(Optional.empty());
 
         // Ejecutar y verificar excepción
         ProductNotFoundException exception = assertThrows(ProductNotFoundException.class, () -> {
@@ -207,7 +324,7 @@ void testGetProductById_Success() {
         });
 
         assertEquals("Product with ID 1 not found", exception.getMessage());
-        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).findLockedById(1L);
         verify(categoryRepository, never()).findById(anyLong());
     }
 
@@ -220,7 +337,7 @@ void testGetProductById_Success() {
         Product existingProduct = new Product();
         existingProduct.setId(1L);
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findLockedById(1L)).thenReturn(Optional.of(existingProduct));
         when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Ejecutar y verificar excepción
@@ -229,7 +346,7 @@ void testGetProductById_Success() {
         });
 
         assertEquals("Category with ID 1 not found", exception.getMessage());
-        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).findLockedById(1L);
         verify(categoryRepository, times(1)).findById(1L);
         verify(productRepository, never()).save(any(Product.class));
     }
@@ -237,20 +354,23 @@ void testGetProductById_Success() {
     @Test
     public void testDeleteProduct_Success() {
         // Preparar datos
-        when(productRepository.existsById(1L)).thenReturn(true);
+        Product product = new Product();
+        product.setId(1L);
+        when(productRepository.findLockedById(1L)).thenReturn(Optional.of(product));
 
         // Ejecutar método
         productService.deleteProduct(1L);
 
         // Verificar resultados
-        verify(productRepository, times(1)).existsById(1L);
-        verify(productRepository, times(1)).deleteById(1L);
+        verify(productRepository, times(1)).findLockedById(1L);
+        verify(productRepository, times(1)).delete(product);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(1L));
     }
 
     @Test
     public void testDeleteProduct_NotFound() {
         // Preparar datos
-        when(productRepository.existsById(1L)).thenReturn(false);
+        when(productRepository.findLockedById(1L)).thenReturn(Optional.empty());
 
         // Ejecutar y verificar excepción
         ProductNotFoundException exception = assertThrows(ProductNotFoundException.class, () -> {
@@ -258,7 +378,116 @@ void testGetProductById_Success() {
         });
 
         assertEquals("Product with ID 1 not found", exception.getMessage());
-        verify(productRepository, times(1)).existsById(1L);
-        verify(productRepository, never()).deleteById(anyLong());
+        verify(productRepository, times(1)).findLockedById(1L);
+        verify(productRepository, never()).delete(any(Product.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testReserveStock_Success() {
+        when(productRepository.reserveStock(eq(1L), eq(3), any())).thenReturn(1);
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(7));
+
+        StockDto stock = productService.reserveStock(1L, 3);
+
+        assertEquals(1L, stock.getProductId());
+        assertEquals(7, stock.getStock());
+        verify(eventPublisher).publishEvent(ProductInventoryChangedEvent.stock(1L, 7));
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    public void testReserveStock_Insufficient() {
+        when(productRepository.reserveStock(eq(1L), eq(5), any())).thenReturn(0);
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(2));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> productService.reserveStock(1L, 5));
+
+        assertEquals("Insufficient stock for product with ID 1: requested 5, available 2", exception.getMessage());
+    }
+
+    @Test
+    public void testReserveStock_ProductNotFound() {
+        when(productRepository.reserveStock(eq(1L), anyInt(), any())).thenReturn(0);
+        when(productRepository.findStockById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> productService.reserveStock(1L, 1));
+    }
+
+    @Test
+    public void testReleaseStock() {
+        when(productRepository.releaseStock(eq(1L), eq(2), any())).thenReturn(1);
+        when(productRepository.findStockById(1L)).thenReturn(Optional.of(12));
+
+        assertEquals(12, productService.releaseStock(1L, 2).getStock());
+
+        when(productRepository.releaseStock(eq(2L), eq(2), any())).thenReturn(0);
+        assertThrows(ProductNotFoundException.class, () -> productService.releaseStock(2L, 2));
+    }
+
+    @Test
+    public void testGetProductById_ConcurrentMissesRunOneQueryPerKey() throws InterruptedException {
+        int callers = 40;
+        List<Thread> threads = new ArrayList<>();
+        Map<Long, List<Thread>> threadsById = new HashMap<>();
+        List<ProductDto> results = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        Category category = new Category();
+        category.setId(1L);
+
+        // Cada consulta se retiene hasta que los demás hilos de su id esperan su resultado. Mockito ejecuta de a
+        // una las respuestas de un mismo stub, así que las dos consultas no se solapan; el id 3 no existe
+        when(productRepository.findWithImagesById(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            awaitWaiting(threadsById.get(id), callers / 2 - 1);
+            if (id == 3L) {
+                return Optional.empty();
+            }
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product" + id);
+            product.setCategory(category);
+            return Optional.of(product);
+        });
+
+        for (int i = 0; i < callers; i++) {
+            long id = i % 2 == 0 ? 1L : 3L;
+            Thread thread = new Thread(() -> {
+                try {
+                    results.add(productService.getProductById(id));
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            });
+            threads.add(thread);
+            threadsById.computeIfAbsent(id, key -> new ArrayList<>()).add(thread);
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+
+        verify(productRepository, times(1)).findWithImagesById(1L);
+        verify(productRepository, times(1)).findWithImagesById(3L);
+        assertEquals(callers / 2, results.size());
+        assertTrue(results.stream().allMatch(product -> product.getName().equals("Product1")));
+        // La única consulta informa a todos los que esperaban esa clave; cada hilo lanza su propia excepción
+        assertEquals(callers / 2, failures.size());
+        assertTrue(failures.stream().allMatch(ProductNotFoundException.class::isInstance));
+        assertEquals(failures.size(), failures.stream().distinct().count());
+    }
+
+    // Quien espera una carga en curso queda en TIMED_WAITING; los hilos que consultan giran sin dormir
+    private static void awaitWaiting(List<Thread> threads, int expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.stream().filter(thread -> thread.getState() == Thread.State.TIMED_WAITING).count()
+                < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Callers did not join the in-flight load");
+            }
+            Thread.onSpinWait();
+        }
     }
 }
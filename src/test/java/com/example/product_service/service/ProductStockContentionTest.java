@@ -0,0 +1,97 @@
+package com.example.product_service.service;
+
+import com.example.product_service.exception.InsufficientStockException;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Muchos hilos reservando el mismo producto: no se pierden descuentos ni se vende de más
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@Import(ProductService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class ProductStockContentionTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int INITIAL_STOCK = 500;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        Long productId = createProduct(INITIAL_STOCK);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        productService.reserveStock(productId, 1);
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, productRepository.findStockById(productId).orElseThrow());
+        assertEquals(INITIAL_STOCK, productRepository.findById(productId).orElseThrow().getVersion());
+    }
+
+    private Long createProduct(int stock) {
+        Category category = new Category();
+        category.setName("Contention");
+        categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Hot product");
+        product.setPrice(new BigDecimal("99.99"));
+        product.setStock(stock);
+        product.setCategory(category);
+        return productRepository.save(product).getId();
+    }
+}
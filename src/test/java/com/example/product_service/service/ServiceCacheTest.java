@@ -0,0 +1,205 @@
+package com.example.product_service.service;
+
+import com.example.product_service.config.CacheConfig;
+import com.example.product_service.dto.CategoryDto;
+import com.example.product_service.dto.ProductDto;
+import com.example.product_service.dto.VersionedProduct;
+import com.example.product_service.model.Category;
+import com.example.product_service.model.Product;
+import com.example.product_service.repository.CategoryRepository;
+import com.example.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Verifica las lecturas cacheadas y que cada escritura invalide solo las entradas afectadas
+@SpringJUnitConfig
+public class ServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import({ProductService.class, CategoryService.class})
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.PRODUCTS, CacheConfig.CATEGORIES);
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(CacheConfig.PRODUCTS).clear();
+        cacheManager.getCache(CacheConfig.CATEGORIES).clear();
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Category1");
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.findLockedById(1L)).thenReturn(Optional.of(category));
+        when(productRepository.findLockedById(1L)).thenReturn(Optional.of(createProduct(1L)));
+        when(productRepository.findWithImagesById(1L)).thenReturn(Optional.of(createProduct(1L)));
+        when(productRepository.findWithImagesById(2L)).thenReturn(Optional.of(createProduct(2L)));
+    }
+
+    @Test
+    void testGetProductById_IsCached() {
+        ProductDto first = productService.getProductById(1L);
+        ProductDto second = productService.getProductById(1L);
+
+        assertSame(first, second);
+        verify(productRepository, times(1)).findWithImagesById(1L);
+    }
+
+    @Test
+    void testGetProductById_ConcurrentMissesQueryOnceAndCache() throws InterruptedException {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        when(productRepository.findWithImagesById(1L)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(createProduct(1L));
+        });
+        for (int i = 0; i < callers; i++) {
+            threads.add(new Thread(() -> productService.getProductById(1L)));
+        }
+        threads.forEach(Thread::start);
+
+        // Todos menos el que consulta esperan la carga en curso (TIMED_WAITING)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        try {
+            while (threads.stream().filter(thread -> thread.getState() == Thread.State.TIMED_WAITING).count()
+                    < callers - 1) {
+                if (System.nanoTime() > deadline) {
+                    fail("Callers did not join the in-flight load");
+                }
+                Thread.onSpinWait();
+            }
+        } finally {
+            release.countDown();
+        }
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+
+        // La carga dejó el producto en caché antes de liberar la clave: la siguiente lectura no consulta
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(1L));
+        productService.getProductById(1L);
+        verify(productRepository, times(1)).findWithImagesById(1L);
+    }
+
+    @Test
+    void testFindVersionedProduct_SharesProductCache() {
+        // La caché de respuestas carga por el mismo camino: tras un fallo de caché no vuelve a la base
+        ProductDto product = productService.getProductById(1L);
+        VersionedProduct versioned = productService.findVersionedProduct(1L).orElseThrow();
+
+        assertSame(product, versioned.product());
+        assertEquals(1L, versioned.version().id());
+        verify(productRepository, times(1)).findWithImagesById(1L);
+    }
+
+    @Test
+    void testUpdateProduct_EvictsOnlyThatProduct() {
+        productService.getProductById(1L);
+        productService.getProductById(2L);
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ProductDto productDto = new ProductDto();
+        productDto.setName("Updated");
+        productDto.setCategoryId(1L);
+        productDto.setImageUrls(List.of("url1"));
+        productService.updateProduct(1L, productDto);
+
+        productService.getProductById(1L);
+        productService.getProductById(2L);
+
+        // 1 lectura inicial + 1 tras la invalidación; updateProduct carga la entidad aparte
+        verify(productRepository, times(2)).findWithImagesById(1L);
+        verify(productRepository, times(1)).findWithImagesById(2L);
+        verify(productRepository, times(1)).findLockedById(1L);
+    }
+
+    @Test
+    void testDeleteProduct_EvictsProduct() {
+        productService.getProductById(1L);
+
+        productService.deleteProduct(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(1L));
+    }
+
+    @Test
+    void testGetCategoryById_IsCachedAndEvictedOnUpdate() {
+        categoryService.getCategoryById(1L);
+        categoryService.getCategoryById(1L);
+        verify(categoryRepository, times(1)).findById(1L);
+
+        when(categoryRepository.save(any(Category.class))).thenReturn(category);
+        CategoryDto categoryDto = new CategoryDto();
+        categoryDto.setName("Renamed");
+        categoryService.updateCategory(1L, categoryDto);
+
+        categoryService.getCategoryById(1L);
+        // updateCategory carga la categoría aparte, bloqueada
+        verify(categoryRepository, times(2)).findById(1L);
+        verify(categoryRepository, times(1)).findLockedById(1L);
+    }
+
+    @Test
+    void testDeleteCategory_EvictsCategoryAndItsProducts() {
+        categoryService.getCategoryById(1L);
+        productService.getProductById(1L);
+        when(categoryRepository.deleteCategoryById(1L)).thenReturn(1);
+
+        categoryService.deleteCategory(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.CATEGORIES).get(1L));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(1L));
+    }
+
+    private Product createProduct(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product" + id);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(1);
+        product.setCategory(category);
+        return product;
+    }
+}
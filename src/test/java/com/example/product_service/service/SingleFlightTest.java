@@ -0,0 +1,111 @@
+package com.example.product_service.service;
+
+import com.example.product_service.exception.LoadFailedException;
+import com.example.product_service.exception.LoadTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    void testWaiterTimesOutWhileLoadContinues() throws InterruptedException {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> leaderResult = new AtomicReference<>();
+
+        Thread leader = new Thread(() -> leaderResult.set(singleFlight.execute(1L, () -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return "loaded";
+        })));
+        leader.start();
+        loading.await();
+
+        assertThrows(LoadTimeoutException.class, () -> singleFlight.execute(1L, () -> "second load"));
+
+        release.countDown();
+        leader.join();
+        assertEquals("loaded", leaderResult.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testKeyIsReleasedAfterSuccessAndFailure() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("database down");
+        }));
+        // Sin llamadas concurrentes no hay nada que compartir: cada llamada carga
+        assertEquals("a", singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            return "a";
+        }));
+        assertEquals("b", singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            return "b";
+        }));
+
+        assertEquals(3, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testWaiterGetsItsOwnExceptionWrappingTheLoadFailure() throws InterruptedException {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+        AtomicReference<Throwable> leaderFailure = new AtomicReference<>();
+        AtomicReference<Throwable> waiterFailure = new AtomicReference<>();
+
+        Thread leader = new Thread(() -> {
+            try {
+                singleFlight.execute(1L, () -> {
+                    loading.countDown();
+                    awaitQuietly(release);
+                    throw failure;
+                });
+            } catch (RuntimeException ex) {
+                leaderFailure.set(ex);
+            }
+        });
+        leader.start();
+        loading.await();
+        Thread waiter = new Thread(() -> {
+            try {
+                singleFlight.execute(1L, () -> "second load");
+            } catch (RuntimeException ex) {
+                waiterFailure.set(ex);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+
+        release.countDown();
+        leader.join();
+        waiter.join();
+        assertSame(failure, leaderFailure.get());
+        assertInstanceOf(LoadFailedException.class, waiterFailure.get());
+        assertSame(failure, waiterFailure.get().getCause());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}